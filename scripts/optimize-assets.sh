@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Optimizes the static assets in a build output directory (normally target/classes/static).
+#
+#  - PNGs are recompressed losslessly in place (oxipng, else optipng)
+#  - images get a "name.png.webp" sibling (cwebp), served to clients that accept WebP
+#  - text assets get ".gz" and ".br" siblings (gzip, brotli), served by Accept-Encoding
+#
+# Each step is skipped with a notice when its tool is not on the PATH, and a variant is kept
+# only if it is at least ASSET_MIN_SAVING_PERCENT (default 10) smaller than the original.
+# URLs never change, so templates work the same with or without this step.
+set -euo pipefail
+
+dir="${1:?usage: optimize-assets.sh <static-directory>}"
+min_saving="${ASSET_MIN_SAVING_PERCENT:-10}"
+
+[ -d "$dir" ] || { echo "optimize-assets: $dir does not exist, nothing to do"; exit 0; }
+
+have() { command -v "$1" >/dev/null 2>&1; }
+size() { wc -c < "$1" | tr -d ' '; }
+before=$(du -sk "$dir" | cut -f1)
+
+# Keeps a generated variant only when it saves enough bytes to be worth serving
+keep_if_smaller() {
+    local original="$1" variant="$2"
+    if [ -f "$variant" ] && [ $(( $(size "$variant") * 100 )) -gt $(( $(size "$original") * (100 - min_saving) )) ]; then
+        rm -f "$variant"
+    fi
+}
+
+if have oxipng; then
+    oxipng --quiet --opt 4 --strip safe --recursive "$dir"
+elif have optipng; then
+    find "$dir" -type f -name '*.png' -exec optipng -quiet -o5 -strip all {} +
+else
+    echo "optimize-assets: oxipng/optipng not found, PNGs left as they are"
+fi
+
+if have cwebp; then
+    find "$dir" -type f \( -name '*.png' -o -name '*.jpg' -o -name '*.jpeg' \) -print0 |
+        while IFS= read -r -d '' image; do
+            cwebp -quiet -q 85 -m 6 "$image" -o "$image.webp"
+            keep_if_smaller "$image" "$image.webp"
+        done
+else
+    echo "optimize-assets: cwebp not found, no WebP variants generated"
+fi
+
+# Images are already compressed; only text formats benefit from gzip and brotli
+find "$dir" -type f \( -name '*.css' -o -name '*.js' -o -name '*.svg' -o -name '*.json' -o -name '*.txt' \) -print0 |
+    while IFS= read -r -d '' asset; do
+        gzip -9 --no-name --keep --force "$asset"
+        keep_if_smaller "$asset" "$asset.gz"
+        if have brotli; then
+            brotli --best --keep --force "$asset"
+            keep_if_smaller "$asset" "$asset.br"
+        fi
+    done
+
+echo "optimize-assets: $dir ${before} KB -> $(du -sk "$dir" | cut -f1) KB (including variants)"
@@ -0,0 +1,74 @@
+package com.trackerapp.benchmark;
+
+import com.trackerapp.TrackerProApplication;
+import com.trackerapp.service.UserAvailabilityIndex;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the application against a private in-memory H2 database, without
+ * the web server for benchmarks that exercise the service layer, or with it
+ * on a random port for load tests.
+ */
+public final class BenchmarkApplication {
+    
+    private BenchmarkApplication() {}
+    
+    public static ConfigurableApplicationContext start(Map<String, Object> overrides) {
+        return start(overrides, WebApplicationType.NONE);
+    }
+    
+    public static ConfigurableApplicationContext startWeb(Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>(overrides);
+        properties.putIfAbsent("server.port", 0);
+        return start(properties, WebApplicationType.SERVLET);
+    }
+    
+    private static ConfigurableApplicationContext start(Map<String, Object> overrides, WebApplicationType webType) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        // One directory per context: two audit writers must never share segments
+        properties.put("tracker.audit.directory", "target/jmh/audit/" + UUID.randomUUID());
+        properties.put("tracker.audit.segment-size-mb", "8");
+        // Every context starts with no sessions and leaves no snapshot behind
+        properties.put("tracker.sessions.snapshot-file", "");
+        properties.putAll(overrides);
+        
+        // Passed as command line arguments so they win over application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TrackerProApplication.class)
+                .web(webType)
+                .run(args);
+        awaitBackgroundStartup(context, !"false".equals(String.valueOf(properties.get("tracker.admin.seed"))));
+        return context;
+    }
+    
+    // Admin seeding and the index warm-up run after readiness; wait so they do not skew measurements
+    private static void awaitBackgroundStartup(ConfigurableApplicationContext context, boolean adminSeeded) {
+        UserAvailabilityIndex index = context.getBean(UserAvailabilityIndex.class);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (!index.isReady() || (adminSeeded && !index.emailExists("admin@trackerpro.com"))) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Background startup did not finish within 60 seconds");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+}
\ No newline at end of file
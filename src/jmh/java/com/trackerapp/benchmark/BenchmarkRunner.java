@@ -0,0 +1,49 @@
+package com.trackerapp.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the selected benchmarks once per requested thread count and writes one
+ * JSON result file per run, so results can be diffed between commits.
+ *
+ * System properties: jmh.include (regex), jmh.threads (comma separated),
+ * jmh.output (directory), jmh.args (any extra JMH command line options,
+ * e.g. "-f 1 -wi 2 -i 3 -p strength=4").
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args) throws Exception {
+        String include = System.getProperty("jmh.include", ".*");
+        String threads = System.getProperty("jmh.threads", "1");
+        String extraArgs = System.getProperty("jmh.args", "").trim();
+        File outputDir = new File(System.getProperty("jmh.output", "target/jmh"));
+        outputDir.mkdirs();
+        
+        CommandLineOptions commandLine = new CommandLineOptions(
+                extraArgs.isEmpty() ? new String[0] : extraArgs.split("\\s+"));
+        
+        for (String threadCount : threads.split(",")) {
+            int count = Integer.parseInt(threadCount.trim());
+            File result = new File(outputDir, "auth-benchmarks-threads-" + count + ".json");
+            
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .include(include)
+                    .threads(count)
+                    // Reports gc.alloc.rate.norm, i.e. bytes allocated per operation
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(result.getPath())
+                    .build();
+            
+            new Runner(options).run();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,296 @@
+package com.trackerapp.benchmark;
+
+import com.trackerapp.model.User;
+import com.trackerapp.service.UserService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop capacity test. Starts the application on in-memory H2 and sends
+ * a weighted mix of requests at a fixed target rate, whether or not earlier
+ * ones have completed. Latency is measured from each request's scheduled
+ * send time, not from when it actually went out, so a stalled server shows
+ * up as latency instead of as a quietly lower send rate (coordinated
+ * omission).
+ *
+ * Reports per endpoint: achieved throughput, error rate and p50/p99/p99.9/max
+ * latency, written to capacity-report.csv, plus one HdrHistogram percentile
+ * distribution (.hgrm) per endpoint.
+ *
+ * Login throttling is off so that repeated logins from one address measure
+ * capacity rather than the rate limiter.
+ *
+ * System properties: capacity.rate (requests/s, default 200),
+ * capacity.mix (default "login:40,register:5,check-email:30,dashboard:15,image:10"),
+ * capacity.seconds (default 60), capacity.warmup-seconds (default 10),
+ * capacity.users (default 500), capacity.app-args (extra application
+ * properties, "key=value,key=value"), jmh.output (report directory).
+ */
+public class CapacityTest {
+
+    private static final String PASSWORD = "capacity-password";
+    private static final String[] IMAGES = {"banner.png", "logo.png", "illustration.png", "bg-curves.png"};
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    enum Endpoint { LOGIN, REGISTER, CHECK_EMAIL, DASHBOARD, IMAGE }
+
+    public static void main(String[] args) throws Exception {
+        int rate = Integer.getInteger("capacity.rate", 200);
+        String mix = System.getProperty("capacity.mix", "login:40,register:5,check-email:30,dashboard:15,image:10");
+        int seconds = Integer.getInteger("capacity.seconds", 60);
+        int warmupSeconds = Integer.getInteger("capacity.warmup-seconds", 10);
+        int users = Integer.getInteger("capacity.users", 500);
+        File outputDir = new File(System.getProperty("jmh.output", "target/jmh"));
+        outputDir.mkdirs();
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("tracker.throttle.enabled", false);
+        properties.put("tracker.hashing.queue-capacity", Math.max(64, rate * 2));
+        for (String pair : System.getProperty("capacity.app-args", "").split(",")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                properties.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+            }
+        }
+
+        try (ConfigurableApplicationContext context = BenchmarkApplication.startWeb(properties);
+             ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            UserService userService = context.getBean(UserService.class);
+            for (int i = 0; i < users; i++) {
+                userService.registerUser(newUser("capacity" + i + "@trackerpro.com", "CAP-" + i)).join();
+            }
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(senders)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            Workload workload = new Workload(client, "http://localhost:" + port, parseMix(mix), users);
+            workload.logInSessions(Math.min(users, 50));
+
+            System.out.printf("Warm-up: %d s at %d req/s%n", warmupSeconds, rate);
+            workload.run(senders, rate, warmupSeconds);
+            workload.reset();
+
+            System.out.printf("Measuring: %d s at %d req/s, mix %s%n", seconds, rate, mix);
+            workload.run(senders, rate, seconds);
+            workload.report(outputDir, seconds);
+        }
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            weights.put(Endpoint.valueOf(pair[0].trim().toUpperCase().replace('-', '_')), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    private static User newUser(String email, String empId) {
+        User user = new User();
+        user.setFullName("Capacity User");
+        user.setEmail(email);
+        user.setPassword(PASSWORD);
+        user.setDepartment("Engineering");
+        user.setEmpId(empId);
+        user.setMobileNo("+91-9000000000");
+        return user;
+    }
+
+    private static final class Workload {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final Endpoint[] schedule;
+        private final int users;
+        private final AtomicLong registrations = new AtomicLong();
+        private final List<String> sessionCookies = new ArrayList<>();
+        private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+
+        Workload(HttpClient client, String baseUrl, Map<Endpoint, Integer> weights, int users) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.users = users;
+            // Flattened weights: picking a random slot picks an endpoint in proportion to its weight
+            List<Endpoint> slots = new ArrayList<>();
+            weights.forEach((endpoint, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    slots.add(endpoint);
+                }
+                stats.put(endpoint, new Stats());
+            });
+            this.schedule = slots.toArray(Endpoint[]::new);
+        }
+
+        // Dashboard requests need an authenticated session (or token) cookie
+        void logInSessions(int count) throws IOException, InterruptedException {
+            for (int i = 0; i < count; i++) {
+                HttpResponse<Void> response = client.send(login(i), HttpResponse.BodyHandlers.discarding());
+                List<String> cookies = new ArrayList<>();
+                for (String header : response.headers().allValues("Set-Cookie")) {
+                    cookies.add(header.split(";", 2)[0]);
+                }
+                if (response.statusCode() != 200 || cookies.isEmpty()) {
+                    throw new IllegalStateException("Could not log in capacity user " + i + ": HTTP " + response.statusCode());
+                }
+                sessionCookies.add(String.join("; ", cookies));
+            }
+        }
+
+        void run(ExecutorService senders, int rate, int seconds) {
+            SplittableRandom random = new SplittableRandom(42);
+            long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+            long total = (long) rate * seconds;
+            long start = System.nanoTime();
+            List<Future<?>> inFlight = new ArrayList<>();
+
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * interval;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                // Falling behind does not skip requests: they go out late and the delay counts as latency
+                Endpoint endpoint = schedule[random.nextInt(schedule.length)];
+                HttpRequest request = request(endpoint, random);
+                inFlight.add(senders.submit(() -> send(endpoint, request, intended)));
+            }
+            for (Future<?> future : inFlight) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        private void send(Endpoint endpoint, HttpRequest request, long intended) {
+            Stats endpointStats = stats.get(endpoint);
+            boolean ok;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() == 200;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long micros = Math.min(MAX_LATENCY_MICROS, Math.max(1, (System.nanoTime() - intended) / 1000));
+            endpointStats.latency.recordValue(micros);
+            (ok ? endpointStats.ok : endpointStats.errors).increment();
+        }
+
+        private HttpRequest request(Endpoint endpoint, SplittableRandom random) {
+            return switch (endpoint) {
+                case LOGIN -> login(random.nextInt(users));
+                case REGISTER -> {
+                    long n = registrations.incrementAndGet();
+                    yield json("/api/auth/register", "{\"fullName\":\"Load User\",\"email\":\"load" + n
+                            + "@trackerpro.com\",\"password\":\"" + PASSWORD + "\",\"confirmPassword\":\"" + PASSWORD
+                            + "\",\"department\":\"Engineering\",\"empId\":\"LOAD-" + n
+                            + "\",\"mobileNo\":\"+91-9000000000\"}");
+                }
+                // Half taken, half free, so both index answers are exercised
+                case CHECK_EMAIL -> get("/api/auth/check-email?email="
+                        + (random.nextBoolean() ? "capacity" + random.nextInt(users) : "free" + random.nextInt(users))
+                        + "@trackerpro.com");
+                case DASHBOARD -> HttpRequest.newBuilder(URI.create(baseUrl + "/dashboard"))
+                        .timeout(Duration.ofSeconds(60))
+                        .header("Cookie", sessionCookies.get(random.nextInt(sessionCookies.size())))
+                        .GET()
+                        .build();
+                case IMAGE -> get("/images/" + IMAGES[random.nextInt(IMAGES.length)]);
+            };
+        }
+
+        private HttpRequest login(int user) {
+            return json("/api/auth/login", "{\"email\":\"capacity" + user + "@trackerpro.com\",\"password\":\""
+                    + PASSWORD + "\"}");
+        }
+
+        private HttpRequest json(String path, String body) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+        }
+
+        void reset() {
+            stats.values().forEach(Stats::reset);
+        }
+
+        void report(File outputDir, int seconds) throws IOException {
+            try (PrintWriter csv = new PrintWriter(new File(outputDir, "capacity-report.csv"))) {
+                String header = "endpoint,requests,errors,error_rate,throughput,p50_ms,p99_ms,p999_ms,max_ms";
+                csv.println(header);
+                System.out.println(header);
+                for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+                    Stats s = entry.getValue();
+                    Histogram h = s.latency;
+                    long requests = s.ok.sum() + s.errors.sum();
+                    String line = String.format("%s,%d,%d,%.4f,%.1f,%.2f,%.2f,%.2f,%.2f",
+                            entry.getKey().name().toLowerCase().replace('_', '-'), requests, s.errors.sum(),
+                            requests == 0 ? 0 : s.errors.sum() / (double) requests, s.ok.sum() / (double) seconds,
+                            h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+                            h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0);
+                    csv.println(line);
+                    System.out.println(line);
+
+                    File hgrm = new File(outputDir, "capacity-" + entry.getKey().name().toLowerCase() + ".hgrm");
+                    try (PrintStream out = new PrintStream(new FileOutputStream(hgrm))) {
+                        // Values are recorded in microseconds; scale so the file reads in milliseconds
+                        h.outputPercentileDistribution(out, 1000.0);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        void reset() {
+            latency.reset();
+            ok.reset();
+            errors.reset();
+        }
+    }
+}
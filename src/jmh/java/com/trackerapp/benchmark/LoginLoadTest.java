@@ -0,0 +1,170 @@
+package com.trackerapp.benchmark;
+
+import com.trackerapp.model.User;
+import com.trackerapp.service.UserService;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fires bursts of concurrent logins at the application once with platform
+ * request threads and once with virtual threads, and reports throughput,
+ * latency percentiles and the peak number of platform threads.
+ *
+ * BCrypt strength is lowered and throttling disabled so the run measures
+ * request handling and JDBC rather than hashing or shedding.
+ *
+ * System properties: load.modes (default "platform,virtual"),
+ * load.concurrency (default 10000), load.rounds (default 3),
+ * jmh.output (directory for login-load.csv).
+ */
+public class LoginLoadTest {
+
+    private static final int USERS = 100;
+    private static final String PASSWORD = "load-password";
+
+    public static void main(String[] args) throws Exception {
+        String[] modes = System.getProperty("load.modes", "platform,virtual").split(",");
+        int concurrency = Integer.getInteger("load.concurrency", 10_000);
+        int rounds = Integer.getInteger("load.rounds", 3);
+        File outputDir = new File(System.getProperty("jmh.output", "target/jmh"));
+        outputDir.mkdirs();
+
+        try (PrintWriter csv = new PrintWriter(new File(outputDir, "login-load.csv"))) {
+            csv.println("mode,round,requests,ok,failed,seconds,throughput,p50_ms,p99_ms,max_ms,peak_platform_threads");
+            for (String mode : modes) {
+                run(mode.trim(), concurrency, rounds, csv);
+            }
+        }
+    }
+
+    private static void run(String mode, int concurrency, int rounds, PrintWriter csv) throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.threads.virtual.enabled", "virtual".equals(mode));
+        properties.put("tracker.password.bcrypt-strength", 4);
+        properties.put("tracker.hashing.queue-capacity", concurrency * 2);
+        properties.put("tracker.throttle.enabled", false);
+        properties.put("server.tomcat.max-connections", concurrency * 2);
+        properties.put("server.tomcat.accept-count", concurrency);
+
+        try (ConfigurableApplicationContext context = BenchmarkApplication.startWeb(properties);
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            UserService userService = context.getBean(UserService.class);
+            for (int i = 0; i < USERS; i++) {
+                userService.registerUser(newUser(i)).join();
+            }
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(clients)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            URI login = URI.create("http://localhost:" + port + "/api/auth/login");
+
+            // Warm-up round, not reported
+            burst(client, clients, login, Math.min(concurrency, 1000));
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            for (int round = 1; round <= rounds; round++) {
+                threads.resetPeakThreadCount();
+                Result result = burst(client, clients, login, concurrency);
+
+                String line = String.format("%s,%d,%d,%d,%d,%.2f,%.0f,%.1f,%.1f,%.1f,%d",
+                        mode, round, concurrency, result.ok, concurrency - result.ok, result.seconds,
+                        result.ok / result.seconds, result.percentile(0.50), result.percentile(0.99),
+                        result.percentile(1.0), threads.getPeakThreadCount());
+                System.out.println(line);
+                csv.println(line);
+                csv.flush();
+            }
+        }
+    }
+
+    // Starts all requests at once and waits for every one of them to finish
+    private static Result burst(HttpClient client, ExecutorService clients, URI login, int count)
+            throws InterruptedException {
+        long[] latencies = new long[count];
+        AtomicInteger ok = new AtomicInteger();
+        AtomicReference<String> firstError = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(count);
+
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            String body = "{\"email\":\"load" + (i % USERS) + "@trackerpro.com\",\"password\":\"" + PASSWORD + "\"}";
+            clients.execute(() -> {
+                try {
+                    start.await();
+                    long begin = System.nanoTime();
+                    HttpResponse<Void> response = client.send(HttpRequest.newBuilder(login)
+                            .timeout(Duration.ofSeconds(120))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(), HttpResponse.BodyHandlers.discarding());
+                    latencies[index] = System.nanoTime() - begin;
+                    if (response.statusCode() == 200) {
+                        ok.incrementAndGet();
+                    } else {
+                        firstError.compareAndSet(null, "HTTP " + response.statusCode());
+                    }
+                } catch (IOException e) {
+                    latencies[index] = Long.MAX_VALUE;
+                    firstError.compareAndSet(null, e.toString());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        if (firstError.get() != null) {
+            System.out.println("First failure: " + firstError.get());
+        }
+        return new Result(latencies, ok.get(), (System.nanoTime() - begin) / 1e9);
+    }
+
+    private static User newUser(int i) {
+        User user = new User();
+        user.setFullName("Load User " + i);
+        user.setEmail("load" + i + "@trackerpro.com");
+        user.setPassword(PASSWORD);
+        user.setDepartment("Engineering");
+        user.setEmpId("LOAD-" + i);
+        user.setMobileNo("+91-9000000000");
+        return user;
+    }
+
+    private record Result(long[] latencies, int ok, double seconds) {
+        Result {
+            Arrays.sort(latencies);
+        }
+
+        double percentile(double p) {
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(p * latencies.length) - 1);
+            long nanos = latencies[Math.max(index, 0)];
+            return nanos == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : nanos / 1e6;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.trackerapp.benchmark;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures requests per second for the anonymous pages under three
+ * rendering setups: templates re-parsed per request (the development
+ * default), cached templates, and cached templates plus the rendered page
+ * cache (the prod profile).
+ *
+ * Clients run a closed loop, each sending its next GET as soon as the last
+ * one completes, with {@code Accept-Encoding: gzip} as a browser would.
+ *
+ * System properties: pages.modes (default "dynamic,templates,cached"),
+ * pages.paths (default "/,/register"), pages.clients (default 64),
+ * pages.seconds (default 10), jmh.output (directory for page-load.csv).
+ */
+public class PageLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String[] modes = System.getProperty("pages.modes", "dynamic,templates,cached").split(",");
+        String[] paths = System.getProperty("pages.paths", "/,/register").split(",");
+        int clients = Integer.getInteger("pages.clients", 64);
+        int seconds = Integer.getInteger("pages.seconds", 10);
+        File outputDir = new File(System.getProperty("jmh.output", "target/jmh"));
+        outputDir.mkdirs();
+
+        try (PrintWriter csv = new PrintWriter(new File(outputDir, "page-load.csv"))) {
+            csv.println("mode,path,clients,seconds,requests,failed,throughput,mean_ms,response_bytes");
+            for (String mode : modes) {
+                run(mode.trim(), paths, clients, seconds, csv);
+            }
+        }
+    }
+
+    private static void run(String mode, String[] paths, int clients, int seconds, PrintWriter csv) throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.thymeleaf.cache", !"dynamic".equals(mode));
+        properties.put("tracker.pages.cache.enabled", "cached".equals(mode));
+        properties.put("server.compression.enabled", true);
+
+        try (ConfigurableApplicationContext context = BenchmarkApplication.startWeb(properties);
+             ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().executor(pool).build();
+
+            for (String path : paths) {
+                URI uri = URI.create("http://localhost:" + port + path.trim());
+                // Warm-up: JIT, template parsing and the first render that fills the page cache
+                drive(client, pool, uri, clients, 2);
+
+                Result result = drive(client, pool, uri, clients, seconds);
+                String line = String.format("%s,%s,%d,%d,%d,%d,%.0f,%.3f,%d", mode, path.trim(), clients, seconds,
+                        result.requests, result.failed, result.requests / (double) seconds,
+                        result.requests == 0 ? 0 : result.nanos / 1e6 / result.requests, result.lastLength);
+                System.out.println(line);
+                csv.println(line);
+                csv.flush();
+            }
+        }
+    }
+
+    private static Result drive(HttpClient client, ExecutorService pool, URI uri, int clients, int seconds)
+            throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+        LongAdder requests = new LongAdder();
+        LongAdder failed = new LongAdder();
+        LongAdder nanos = new LongAdder();
+        AtomicReference<Integer> lastLength = new AtomicReference<>(0);
+        CountDownLatch done = new CountDownLatch(clients);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        for (int i = 0; i < clients; i++) {
+            pool.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        nanos.add(System.nanoTime() - begin);
+                        if (response.statusCode() == 200) {
+                            requests.increment();
+                            lastLength.set(response.body().length);
+                        } else {
+                            failed.increment();
+                        }
+                    }
+                } catch (IOException e) {
+                    failed.increment();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        return new Result(requests.sum(), failed.sum(), nanos.sum(), lastLength.get());
+    }
+
+    private record Result(long requests, long failed, long nanos, int lastLength) {
+    }
+}
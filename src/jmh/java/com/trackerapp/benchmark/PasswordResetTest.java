@@ -0,0 +1,215 @@
+package com.trackerapp.benchmark;
+
+import com.trackerapp.model.User;
+import com.trackerapp.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the password reset flow end to end against a local SMTP stand-in
+ * that is slow and refuses a share of messages, and checks that:
+ * <ul>
+ *   <li>{@code /api/auth/forgot} answers registered and unknown emails in
+ *       the same time, however slow the mail server is;</li>
+ *   <li>the emailed token resets the password, the new password logs in,
+ *       the old one does not, and the token cannot be used twice;</li>
+ *   <li>refused messages are retried and every reset email is delivered.</li>
+ * </ul>
+ * Exits with status 1 if any check fails.
+ *
+ * System properties: reset.users (default 200), reset.requests (default 2000
+ * per case), reset.smtp-delay-ms (default 50), reset.smtp-fail-every
+ * (default 7), jmh.output (directory for password-reset.csv).
+ */
+public class PasswordResetTest {
+
+    private static final String PASSWORD = "password123";
+    private static final String NEW_PASSWORD = "changed456";
+    private static final Pattern TOKEN = Pattern.compile("#token=([A-Za-z0-9_-]+)");
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("reset.users", 200);
+        int requests = Integer.getInteger("reset.requests", 2000);
+        long smtpDelay = Long.getLong("reset.smtp-delay-ms", 50);
+        int failEvery = Integer.getInteger("reset.smtp-fail-every", 7);
+        File outputDir = new File(System.getProperty("jmh.output", "target/jmh"));
+        outputDir.mkdirs();
+
+        boolean passed = true;
+        try (SmtpStandIn smtp = new SmtpStandIn(smtpDelay, failEvery)) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.mail.host", "127.0.0.1");
+            properties.put("spring.mail.port", smtp.port());
+            properties.put("tracker.mail.retry-base-ms", 100);
+            properties.put("tracker.mail.max-attempts", 10);
+            // Timing is measured on the handler itself, not on how soon the limiter says no
+            properties.put("tracker.throttle.enabled", false);
+            properties.put("tracker.password.bcrypt-strength", 4);
+
+            try (ConfigurableApplicationContext context = BenchmarkApplication.startWeb(properties);
+                 PrintWriter csv = new PrintWriter(new File(outputDir, "password-reset.csv"))) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                UserService userService = context.getBean(UserService.class);
+                for (int i = 0; i < users; i++) {
+                    userService.registerUser(user(i)).join();
+                }
+                // Kept out of the timing runs, so its only email is the one the flow waits for
+                User flowUser = user(users);
+                flowUser.setEmail("flow@trackerpro.com");
+                userService.registerUser(flowUser).join();
+                HttpClient client = HttpClient.newHttpClient();
+
+                // Before the timing runs fill the mail queue
+                passed &= resetFlow(client, port, smtp, flowUser.getEmail());
+
+                // Warm-up, then both cases interleaved so drift in the machine affects them equally
+                measure(client, port, users, 500);
+                long[][] latencies = measure(client, port, users, requests);
+                csv.println("case,requests,mean_us,p50_us,p90_us,p99_us");
+                double knownMedian = report(csv, "registered", latencies[0]);
+                double unknownMedian = report(csv, "unknown", latencies[1]);
+                // A lookup, a token and an SMTP round trip on the request path would show up as a gap here
+                double gap = Math.abs(knownMedian - unknownMedian);
+                boolean constantTime = gap < 100 || gap < 0.2 * Math.min(knownMedian, unknownMedian);
+                System.out.printf("Median gap between registered and unknown emails: %.1f us%n", gap);
+                passed &= check(constantTime, "forgot answers in the same time for registered and unknown emails");
+
+                // Every registered address was asked for at least once, so each is owed a delivered email
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+                while (distinctRecipients(smtp) < users + 1 && System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                }
+                MeterRegistry meters = context.getBean(MeterRegistry.class);
+                System.out.printf("SMTP: %d messages over %d connections, %d refused; retried %.0f, failed %.0f, dropped %.0f%n",
+                        smtp.received().size(), smtp.connections(), smtp.refused(),
+                        mailCount(meters, "retried"), mailCount(meters, "failed"), mailCount(meters, "dropped"));
+                passed &= check(distinctRecipients(smtp) == users + 1, "every registered user received a reset email");
+                passed &= check(failEvery == 0 || mailCount(meters, "retried") > 0, "refused messages were retried");
+            }
+        }
+
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    // [0] registered emails, [1] unknown emails, in nanoseconds
+    private static long[][] measure(HttpClient client, int port, int users, int requests) throws Exception {
+        long[] known = new long[requests];
+        long[] unknown = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            known[i] = timeForgot(client, port, "reset" + (i % users) + "@trackerpro.com");
+            unknown[i] = timeForgot(client, port, "nobody" + i + "@trackerpro.com");
+        }
+        return new long[][] {known, unknown};
+    }
+
+    private static long timeForgot(HttpClient client, int port, String email) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = post(client, port, "/api/auth/forgot", "{\"email\":\"" + email + "\"}");
+        long elapsed = System.nanoTime() - start;
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("forgot returned " + response.statusCode() + ": " + response.body());
+        }
+        return elapsed;
+    }
+
+    private static boolean resetFlow(HttpClient client, int port, SmtpStandIn smtp, String email) throws Exception {
+        post(client, port, "/api/auth/forgot", "{\"email\":\"" + email + "\"}");
+
+        String token = null;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (token == null && System.nanoTime() < deadline) {
+            Optional<SmtpStandIn.Message> message = smtp.lastTo(email);
+            if (message.isPresent()) {
+                Matcher matcher = TOKEN.matcher(message.get().data());
+                token = matcher.find() ? matcher.group(1) : "";
+            } else {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            }
+        }
+        if (!check(token != null && !token.isEmpty(), "reset email delivered with a token")) {
+            return false;
+        }
+
+        String reset = "{\"token\":\"" + token + "\",\"password\":\"" + NEW_PASSWORD
+                + "\",\"confirmPassword\":\"" + NEW_PASSWORD + "\"}";
+        boolean passed = check(post(client, port, "/api/auth/reset", reset).statusCode() == 200,
+                "emailed token resets the password");
+        passed &= check(login(client, port, email, NEW_PASSWORD) == 200, "new password logs in");
+        passed &= check(login(client, port, email, PASSWORD) == 400, "old password is rejected");
+        passed &= check(post(client, port, "/api/auth/reset", reset).statusCode() == 400, "token works only once");
+        return passed;
+    }
+
+    private static long distinctRecipients(SmtpStandIn smtp) {
+        return smtp.received().stream().flatMap(message -> message.recipients().stream()).distinct().count();
+    }
+
+    private static double mailCount(MeterRegistry meters, String outcome) {
+        return meters.get("tracker.mail.messages").tag("outcome", outcome).counter().count();
+    }
+
+    private static int login(HttpClient client, int port, String email, String password) throws Exception {
+        return post(client, port, "/api/auth/login",
+                "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}").statusCode();
+    }
+
+    private static HttpResponse<String> post(HttpClient client, int port, String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double report(PrintWriter csv, String name, long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0) / 1e3;
+        double p50 = percentile(sorted, 0.50);
+        String line = String.format("%s,%d,%.1f,%.1f,%.1f,%.1f", name, sorted.length, mean, p50,
+                percentile(sorted, 0.90), percentile(sorted, 0.99));
+        System.out.println(line);
+        csv.println(line);
+        return p50;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e3;
+    }
+
+    private static boolean check(boolean condition, String description) {
+        System.out.println((condition ? "ok    " : "FAIL  ") + description);
+        return condition;
+    }
+
+    private static User user(int i) {
+        User user = new User();
+        user.setFullName("Reset User " + i);
+        user.setEmail("reset" + i + "@trackerpro.com");
+        user.setPassword(PASSWORD);
+        user.setDepartment("Engineering");
+        user.setEmpId("RESET-" + i);
+        user.setMobileNo("+91-9000000000");
+        return user;
+    }
+}
@@ -0,0 +1,174 @@
+package com.trackerapp.benchmark;
+
+import com.trackerapp.model.User;
+import com.trackerapp.service.UserConflictException;
+import com.trackerapp.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Registers the same users from many threads at once and checks that each
+ * email and employee ID is claimed exactly once, that every loser gets the
+ * matching conflict message, and how many SQL statements a registration
+ * costs. Exits with status 1 if any check fails.
+ *
+ * Contenders for an even-numbered user share its email but not its employee
+ * ID, so all but one must get "Email already exists"; odd-numbered users are
+ * contended on the employee ID the same way. A second phase repeats every
+ * registration, which the in-memory prechecks should reject without running
+ * any SQL.
+ *
+ * System properties: race.users (default 200), race.contenders (default 16),
+ * race.threads (default 64), jmh.output (directory for registration-race.csv).
+ */
+public class RegistrationRaceTest {
+
+    private static final String EMAIL_EXISTS = "Email already exists";
+    private static final String EMP_ID_EXISTS = "Employee ID already exists";
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("race.users", 200);
+        int contenders = Math.max(2, Integer.getInteger("race.contenders", 16));
+        int threads = Integer.getInteger("race.threads", 64);
+        File outputDir = new File(System.getProperty("jmh.output", "target/jmh"));
+        outputDir.mkdirs();
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("tracker.password.bcrypt-strength", 4);
+        properties.put("tracker.hashing.queue-capacity", users * contenders);
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", true);
+
+        boolean passed;
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start(properties);
+             PrintWriter csv = new PrintWriter(new File(outputDir, "registration-race.csv"))) {
+            UserService userService = context.getBean(UserService.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class).getStatistics();
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+            csv.println("phase,attempts,registered,email_conflicts,empid_conflicts,errors,statements,statements_per_attempt");
+            Outcome contended = race(userService, statistics, pool, users, contenders);
+            report(csv, "contended", contended);
+            Outcome repeated = race(userService, statistics, pool, users, contenders);
+            report(csv, "repeated", repeated);
+            pool.shutdown();
+
+            int evenUsers = (users + 1) / 2;
+            int losers = contenders - 1;
+            // One winner per user, each loser told which key clashed, and nothing else going wrong
+            passed = contended.registered.get() == users
+                    && contended.emailConflicts.get() == evenUsers * losers
+                    && contended.empIdConflicts.get() == (users - evenUsers) * losers
+                    && contended.errors.get() == 0
+                    // Every repeat collides on a key the index already knows about
+                    && repeated.registered.get() == 0
+                    && repeated.errors.get() == 0
+                    && repeated.statements == 0;
+            for (Outcome outcome : List.of(contended, repeated)) {
+                if (outcome.firstError.get() != null) {
+                    System.out.println("First unexpected failure: " + outcome.firstError.get());
+                }
+            }
+        }
+
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static Outcome race(UserService userService, Statistics statistics, ExecutorService pool,
+                                int users, int contenders) throws InterruptedException {
+        List<Runnable> attempts = new ArrayList<>(users * contenders);
+        Outcome outcome = new Outcome();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(users * contenders);
+
+        for (int u = 0; u < users; u++) {
+            boolean sharedEmail = u % 2 == 0;
+            for (int c = 0; c < contenders; c++) {
+                String email = "race" + u + (sharedEmail ? "" : "-" + c) + "@trackerpro.com";
+                String empId = "RACE-" + u + (sharedEmail ? "-" + c : "");
+                attempts.add(() -> {
+                    try {
+                        start.await();
+                        userService.registerUser(newUser(email, empId)).join();
+                        outcome.registered.incrementAndGet();
+                    } catch (CompletionException e) {
+                        outcome.failed(e.getCause() != null ? e.getCause() : e, email);
+                    } catch (RuntimeException e) {
+                        outcome.failed(e, email);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+        }
+
+        statistics.clear();
+        attempts.forEach(pool::execute);
+        start.countDown();
+        done.await();
+        outcome.statements = statistics.getPrepareStatementCount();
+        outcome.attempts = attempts.size();
+        return outcome;
+    }
+
+    private static void report(PrintWriter csv, String phase, Outcome outcome) {
+        String line = String.format("%s,%d,%d,%d,%d,%d,%d,%.2f", phase, outcome.attempts,
+                outcome.registered.get(), outcome.emailConflicts.get(), outcome.empIdConflicts.get(),
+                outcome.errors.get(), outcome.statements, (double) outcome.statements / outcome.attempts);
+        System.out.println(line);
+        csv.println(line);
+        csv.flush();
+    }
+
+    private static User newUser(String email, String empId) {
+        User user = new User();
+        user.setFullName("Race User");
+        user.setEmail(email);
+        user.setPassword("race-password");
+        user.setDepartment("Engineering");
+        user.setEmpId(empId);
+        user.setMobileNo("+91-9000000000");
+        return user;
+    }
+
+    private static final class Outcome {
+        final AtomicInteger registered = new AtomicInteger();
+        final AtomicInteger emailConflicts = new AtomicInteger();
+        final AtomicInteger empIdConflicts = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        final AtomicReference<String> firstError = new AtomicReference<>();
+        int attempts;
+        long statements;
+
+        void failed(Throwable cause, String email) {
+            if (cause instanceof UserConflictException && EMAIL_EXISTS.equals(cause.getMessage())) {
+                emailConflicts.incrementAndGet();
+            } else if (cause instanceof UserConflictException && EMP_ID_EXISTS.equals(cause.getMessage())) {
+                empIdConflicts.incrementAndGet();
+            } else {
+                errors.incrementAndGet();
+                firstError.compareAndSet(null, email + ": " + cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.trackerapp.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal SMTP server on a random local port that keeps every message it
+ * accepts in memory. It can be made slow (a fixed delay before each message
+ * is acknowledged) and flaky (every n-th message refused with a transient
+ * 451), so the dispatch queue's batching and retries can be exercised
+ * without a real mail server.
+ */
+final class SmtpStandIn implements AutoCloseable {
+
+    record Message(List<String> recipients, String data) {}
+
+    private final ServerSocket server;
+    private final long delayMillis;
+    private final int failEvery;
+    private final ConcurrentLinkedQueue<Message> received = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger transactions = new AtomicInteger();
+    private final AtomicInteger refused = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    // failEvery 0 = never refuse
+    SmtpStandIn(long delayMillis, int failEvery) throws IOException {
+        this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.delayMillis = delayMillis;
+        this.failEvery = failEvery;
+        Thread.ofVirtual().name("smtp-stand-in").start(this::acceptLoop);
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    List<Message> received() {
+        return new ArrayList<>(received);
+    }
+
+    // Most recent message for the address, if one has arrived
+    Optional<Message> lastTo(String recipient) {
+        Message last = null;
+        for (Message message : received) {
+            if (message.recipients().contains(recipient)) {
+                last = message;
+            }
+        }
+        return Optional.ofNullable(last);
+    }
+
+    int refused() {
+        return refused.get();
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.incrementAndGet();
+                Thread.ofVirtual().start(() -> serve(socket));
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            reply(out, "220 stand-in ESMTP");
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 stand-in");
+                    case "MAIL" -> {
+                        recipients.clear();
+                        if (failEvery > 0 && transactions.incrementAndGet() % failEvery == 0) {
+                            refused.incrementAndGet();
+                            reply(out, "451 4.3.0 Try again later");
+                        } else {
+                            reply(out, "250 OK");
+                        }
+                    }
+                    case "RCPT" -> {
+                        recipients.add(line.substring(line.indexOf('<') + 1, line.lastIndexOf('>')));
+                        reply(out, "250 OK");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        String dataLine;
+                        while ((dataLine = in.readLine()) != null && !dataLine.equals(".")) {
+                            // Undo dot-stuffing
+                            data.append(dataLine.startsWith("..") ? dataLine.substring(1) : dataLine).append('\n');
+                        }
+                        if (delayMillis > 0) {
+                            Thread.sleep(delayMillis);
+                        }
+                        received.add(new Message(List.copyOf(recipients), data.toString()));
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // Client went away
+        }
+    }
+
+    private static void reply(Writer out, String line) throws IOException {
+        out.write(line);
+        out.write("\r\n");
+        out.flush();
+    }
+}
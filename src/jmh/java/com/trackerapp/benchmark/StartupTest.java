@@ -0,0 +1,196 @@
+package com.trackerapp.benchmark;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first successful login from a cold JVM. Each run launches the
+ * packaged application as a child process on a private in-memory H2
+ * database and records, from process start, when the readiness probe first
+ * reports UP and when the default admin first logs in.
+ *
+ * Modes: "default" runs the repackaged jar with the standard configuration
+ * (schema built by Hibernate, BCrypt calibrated, admin password hashed);
+ * "fast" runs the fast-startup build (AOT-processed, CDS archive,
+ * prod,fast-startup profiles, schema from db/schema.sql, precomputed admin
+ * hash). Build both first with mvn -P fast-startup,benchmarks verify.
+ *
+ * System properties: startup.modes (default "default,fast"), startup.runs
+ * (default 5), startup.jar (repackaged jar), startup.fast-dir (fast-startup
+ * output directory), jmh.output (directory for startup.csv and child logs).
+ */
+public class StartupTest {
+
+    private static final String ADMIN_EMAIL = "admin@trackerpro.com";
+    private static final String ADMIN_PASSWORD = "admin123";
+    private static final long TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(3);
+
+    public static void main(String[] args) throws Exception {
+        String[] modes = System.getProperty("startup.modes", "default,fast").split(",");
+        int runs = Integer.getInteger("startup.runs", 5);
+        File jar = new File(System.getProperty("startup.jar", "target/tracker-pro-1.0.0.jar"));
+        File fastDir = new File(System.getProperty("startup.fast-dir", "target/fast-startup"));
+        File outputDir = new File(System.getProperty("jmh.output", "target/jmh"));
+        outputDir.mkdirs();
+
+        // Hashed once here, as a deployment would, at the strength the fast-startup profile fixes
+        String adminHash = "{bcrypt}" + new BCryptPasswordEncoder(12).encode(ADMIN_PASSWORD);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        try (PrintWriter csv = new PrintWriter(new File(outputDir, "startup.csv"))) {
+            csv.println("mode,run,ready_ms,first_login_ms");
+            for (String mode : modes) {
+                mode = mode.trim();
+                List<String> command = command(mode, jar, fastDir, adminHash);
+                if (command == null) {
+                    continue;
+                }
+                long[] ready = new long[runs];
+                long[] login = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    File log = new File(outputDir, "startup-" + mode + "-" + run + ".log");
+                    long[] timings = launch(client, command, log);
+                    ready[run] = timings[0];
+                    login[run] = timings[1];
+                    csv.printf("%s,%d,%d,%d%n", mode, run, ready[run], login[run]);
+                    csv.flush();
+                }
+                System.out.printf("%-8s ready p50 %5d ms, first login p50 %5d ms (%d runs)%n",
+                        mode, median(ready), median(login), runs);
+            }
+        }
+    }
+
+    private static List<String> command(String mode, File jar, File fastDir, String adminHash) {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String database = "jdbc:h2:mem:startup-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        List<String> command = new ArrayList<>();
+        command.add(java);
+
+        if ("default".equals(mode)) {
+            if (!jar.isFile()) {
+                System.out.println("Skipping default mode: " + jar + " not found");
+                return null;
+            }
+            command.addAll(List.of("-jar", jar.getAbsolutePath()));
+        } else if ("fast".equals(mode)) {
+            File[] fastJars = fastDir.listFiles((dir, name) -> name.endsWith("-fast.jar"));
+            File archive = new File(fastDir, "tracker-pro.jsa");
+            if (fastJars == null || fastJars.length == 0 || !archive.isFile()) {
+                System.out.println("Skipping fast mode: build with -P fast-startup first");
+                return null;
+            }
+            command.addAll(List.of("-XX:SharedArchiveFile=" + archive.getAbsolutePath(), "-Dspring.aot.enabled=true",
+                    "-jar", fastJars[0].getAbsolutePath(),
+                    "--spring.profiles.active=prod,fast-startup",
+                    "--tracker.admin.password-hash=" + adminHash));
+            // Stands in for the deployment step that applies the schema before the application starts
+            database += ";INIT=RUNSCRIPT FROM 'classpath:db/schema.sql'";
+        } else {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+
+        command.addAll(List.of(
+                "--spring.datasource.url=" + database,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--tracker.throttle.enabled=false",
+                "--tracker.sessions.snapshot-file=",
+                "--tracker.audit.directory=target/jmh/startup-audit/" + UUID.randomUUID()));
+        return command;
+    }
+
+    // Returns {readiness ms, first successful login ms}, both from process start
+    private static long[] launch(HttpClient client, List<String> command, File log) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        String base = "http://localhost:" + port;
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(withPort).redirectErrorStream(true)
+                .redirectOutput(log).start();
+        try {
+            await(start, process, () -> get(client, base + "/actuator/health/readiness").statusCode() == 200);
+            long ready = System.nanoTime();
+
+            // The admin is seeded after readiness; wait for it rather than feeding failed logins
+            await(start, process, () -> get(client, base + "/api/auth/check-email?email=" + ADMIN_EMAIL)
+                    .body().contains("true"));
+            await(start, process, () -> {
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + ADMIN_EMAIL
+                                        + "\",\"password\":\"" + ADMIN_PASSWORD + "\"}"))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+                return response.statusCode() == 200 && response.body().contains("\"success\":true");
+            });
+            long loggedIn = System.nanoTime();
+
+            return new long[] {
+                    TimeUnit.NANOSECONDS.toMillis(ready - start),
+                    TimeUnit.NANOSECONDS.toMillis(loggedIn - start)
+            };
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static HttpResponse<String> get(HttpClient client, String url) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(5)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void await(long start, Process process, Check check) throws Exception {
+        while (true) {
+            try {
+                if (check.passes()) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with status " + process.exitValue());
+            }
+            if (System.nanoTime() - start > TIMEOUT_NANOS) {
+                throw new IllegalStateException("Application did not respond within 3 minutes");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean passes() throws Exception;
+    }
+}
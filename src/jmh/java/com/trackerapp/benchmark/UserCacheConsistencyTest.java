@@ -0,0 +1,152 @@
+package com.trackerapp.benchmark;
+
+import com.trackerapp.model.Role;
+import com.trackerapp.model.User;
+import com.trackerapp.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks that the user cache never lets a login see stale authorization
+ * data, and measures SQL statements per login with the cache on and off.
+ *
+ * After every updateEnabled / updateRole call returns, a login on the same
+ * thread must observe the new value, while reader threads keep logging in
+ * the whole time so cache loads race with the writes. Exits with status 1 if
+ * any login saw a stale value.
+ *
+ * System properties: cache.toggles (default 200), cache.readers (default 8),
+ * cache.logins (default 200), jmh.output (directory for user-cache.csv).
+ */
+public class UserCacheConsistencyTest {
+
+    private static final String EMAIL = "cache.user@trackerpro.com";
+    private static final String PASSWORD = "cache-password";
+
+    public static void main(String[] args) throws Exception {
+        int toggles = Integer.getInteger("cache.toggles", 200);
+        int readers = Integer.getInteger("cache.readers", 8);
+        int logins = Integer.getInteger("cache.logins", 200);
+        File outputDir = new File(System.getProperty("jmh.output", "target/jmh"));
+        outputDir.mkdirs();
+
+        boolean passed = true;
+        try (PrintWriter csv = new PrintWriter(new File(outputDir, "user-cache.csv"))) {
+            csv.println("cache,logins,statements,statements_per_login,stale_logins");
+            for (boolean cacheEnabled : new boolean[] {false, true}) {
+                passed &= run(cacheEnabled, toggles, readers, logins, csv);
+            }
+        }
+
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(boolean cacheEnabled, int toggles, int readers, int logins, PrintWriter csv)
+            throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("tracker.password.bcrypt-strength", 4);
+        properties.put("tracker.users.cache.enabled", cacheEnabled);
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", true);
+
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start(properties)) {
+            UserService userService = context.getBean(UserService.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class).getStatistics();
+            Long userId = userService.registerUser(newUser()).join().getId();
+
+            // Queries per login once warm
+            login(userService);
+            statistics.clear();
+            for (int i = 0; i < logins; i++) {
+                login(userService);
+            }
+            long statements = statistics.getPrepareStatementCount();
+
+            int stale = toggleUnderLoad(userService, userId, toggles, readers);
+
+            String line = String.format("%s,%d,%d,%.2f,%d", cacheEnabled ? "on" : "off", logins, statements,
+                    statements / (double) logins, stale);
+            System.out.println(line);
+            csv.println(line);
+            csv.flush();
+            return stale == 0;
+        }
+    }
+
+    // Returns the number of logins that did not reflect a write that had already returned
+    private static int toggleUnderLoad(UserService userService, Long userId, int toggles, int readers)
+            throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(readers);
+        List<Future<?>> background = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            background.add(pool.submit(() -> {
+                while (running.get()) {
+                    login(userService);
+                }
+            }));
+        }
+
+        int stale = 0;
+        try {
+            for (int i = 0; i < toggles; i++) {
+                userService.updateEnabled(userId, false);
+                if (login(userService).isPresent()) {
+                    stale++;
+                }
+
+                userService.updateEnabled(userId, true);
+                Optional<User> enabled = login(userService);
+                if (enabled.isEmpty()) {
+                    stale++;
+                }
+
+                Role role = i % 2 == 0 ? Role.ADMIN : Role.USER;
+                userService.updateRole(userId, role);
+                Optional<User> promoted = login(userService);
+                if (promoted.isEmpty() || promoted.get().getRole() != role) {
+                    stale++;
+                }
+            }
+        } finally {
+            running.set(false);
+            for (Future<?> future : background) {
+                future.get();
+            }
+            pool.shutdown();
+        }
+        return stale;
+    }
+
+    private static Optional<User> login(UserService userService) {
+        return userService.authenticateUser(EMAIL, PASSWORD).join();
+    }
+
+    private static User newUser() {
+        User user = new User();
+        user.setFullName("Cache User");
+        user.setEmail(EMAIL);
+        user.setPassword(PASSWORD);
+        user.setDepartment("Engineering");
+        user.setEmpId("CACHE-1");
+        user.setMobileNo("+91-9000000000");
+        return user;
+    }
+}
@@ -0,0 +1,239 @@
+package com.trackerapp.benchmark;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams {@code /api/admin/users/export} over tables of growing size and
+ * checks that the live heap stays flat and that writes to the
+ * table are not held up while an export runs. Exits with status 1 if any
+ * check fails.
+ *
+ * The table lives in an H2 file database, so its rows do not count towards
+ * the heap being measured. While each export runs, one thread forces a GC
+ * every 500 ms and records the live heap, and another updates random rows
+ * and records the slowest update.
+ *
+ * System properties: export.rows (default "1000,100000,1000000"; sizes are
+ * cumulative, add 5000000 for the full check), export.modes (default
+ * "csv,ndjson,csv+gzip"), export.max-heap-growth-mb (default 64),
+ * jmh.output (directory for user-export.csv).
+ */
+public class UserExportTest {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (full_name, email, password, department, emp_id, mobile_no, role, enabled, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String[] DEPARTMENTS = {
+        "Engineering", "Finance", "Human Resources", "Marketing", "Operations", "Sales"
+    };
+
+    public static void main(String[] args) throws Exception {
+        String[] sizes = System.getProperty("export.rows", "1000,100000,1000000").split(",");
+        String[] modes = System.getProperty("export.modes", "csv,ndjson,csv+gzip").split(",");
+        long maxGrowth = Long.getLong("export.max-heap-growth-mb", 64) * 1024 * 1024;
+        File outputDir = new File(System.getProperty("jmh.output", "target/jmh"));
+        outputDir.mkdirs();
+
+        Map<String, Object> properties = new HashMap<>();
+        // On disk with a small page cache; lazy execution reads rows as the cursor advances, as MySQL
+        // does when it streams the export query
+        properties.put("spring.datasource.url", "jdbc:h2:file:./target/jmh/export/" + UUID.randomUUID()
+                + ";CACHE_SIZE=16384;LAZY_QUERY_EXECUTION=1");
+        properties.put("tracker.password.bcrypt-strength", 4);
+
+        boolean passed = true;
+        try (ConfigurableApplicationContext context = BenchmarkApplication.startWeb(properties);
+             PrintWriter csv = new PrintWriter(new File(outputDir, "user-export.csv"))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            HttpClient client = HttpClient.newHttpClient();
+            String cookie = login(client, port);
+
+            csv.println("rows,mode,seconds,rows_per_second,bytes,live_heap_before_mb,live_heap_peak_mb,"
+                    + "heap_growth_mb,slowest_write_ms");
+            long seeded = 1; // the default admin
+            for (String size : sizes) {
+                long rows = Long.parseLong(size.trim());
+                seed(jdbc, seeded, rows);
+                seeded = Math.max(seeded, rows);
+                for (String mode : modes) {
+                    Result result = export(client, port, cookie, mode.trim(), jdbc, seeded);
+                    String line = String.format("%d,%s,%.2f,%.0f,%d,%.1f,%.1f,%.1f,%.1f", seeded, mode.trim(),
+                            result.seconds, seeded / result.seconds, result.bytes, result.heapBefore / 1048576.0,
+                            result.heapPeak / 1048576.0, (result.heapPeak - result.heapBefore) / 1048576.0,
+                            result.slowestWriteNanos / 1e6);
+                    System.out.println(line);
+                    csv.println(line);
+                    csv.flush();
+                    passed &= check(result.rows == seeded, mode + " export of " + seeded + " rows has every row");
+                    passed &= check(result.heapPeak - result.heapBefore < maxGrowth,
+                            mode + " export of " + seeded + " rows keeps the live heap flat");
+                    passed &= check(result.slowestWriteNanos < TimeUnit.SECONDS.toNanos(1),
+                            mode + " export of " + seeded + " rows does not block writers");
+                }
+            }
+        }
+
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static Result export(HttpClient client, int port, String cookie, String mode,
+                                 JdbcTemplate jdbc, long maxId) throws Exception {
+        boolean gzip = mode.endsWith("+gzip");
+        String format = gzip ? mode.substring(0, mode.indexOf('+')) : mode;
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + "/api/admin/users/export?format=" + format + "&gzip=" + gzip))
+                .header("Cookie", cookie)
+                .GET()
+                .build();
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong heapPeak = new AtomicLong(heapBefore);
+        AtomicLong slowestWrite = new AtomicLong();
+        List<Thread> probes = new ArrayList<>();
+        probes.add(Thread.ofPlatform().daemon().start(() -> {
+            while (running.get()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(500));
+                System.gc();
+                heapPeak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            }
+        }));
+        probes.add(Thread.ofPlatform().daemon().start(() -> {
+            SplittableRandom random = new SplittableRandom();
+            while (running.get()) {
+                long start = System.nanoTime();
+                jdbc.update("UPDATE users SET department = ? WHERE id = ?",
+                        DEPARTMENTS[random.nextInt(DEPARTMENTS.length)], 1 + random.nextLong(maxId));
+                slowestWrite.accumulateAndGet(System.nanoTime() - start, Math::max);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+        }));
+
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("export returned " + response.statusCode());
+        }
+        long lines = 0;
+        CountingInputStream counted = new CountingInputStream(response.body());
+        InputStream body = gzip ? new GZIPInputStream(counted, 65536) : counted;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 65536)) {
+            while (reader.readLine() != null) {
+                lines++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        running.set(false);
+        for (Thread probe : probes) {
+            probe.join();
+        }
+        // The CSV header is not a row
+        long rows = "csv".equals(format) ? lines - 1 : lines;
+        return new Result(rows, seconds, counted.count, heapBefore, heapPeak.get(), slowestWrite.get());
+    }
+
+    // Inserts users with ids up to `to`, continuing from `from`, in batches straight through JDBC
+    private static void seed(JdbcTemplate jdbc, long from, long to) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (long i = from + 1; i <= to; i++) {
+            batch.add(new Object[] {
+                "Export User, " + i, "export" + i + "@trackerpro.com", "{bcrypt}unused",
+                DEPARTMENTS[random.nextInt(DEPARTMENTS.length)], "EXP" + i, "+91-9000000000", "USER", true
+            });
+            if (batch.size() == 10_000) {
+                jdbc.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(INSERT_SQL, batch);
+        }
+    }
+
+    private static String login(HttpClient client, int port) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"admin@trackerpro.com\",\"password\":\"admin123\"}"))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        List<String> cookies = new ArrayList<>();
+        for (String header : response.headers().allValues("Set-Cookie")) {
+            cookies.add(header.split(";", 2)[0]);
+        }
+        if (response.statusCode() != 200 || cookies.isEmpty()) {
+            throw new IllegalStateException("Admin login failed: " + response.statusCode());
+        }
+        return String.join("; ", cookies);
+    }
+
+    private static boolean check(boolean condition, String description) {
+        System.out.println((condition ? "ok    " : "FAIL  ") + description);
+        return condition;
+    }
+
+    private record Result(long rows, double seconds, long bytes, long heapBefore, long heapPeak,
+                          long slowestWriteNanos) {}
+
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.trackerapp.benchmark;
+
+import com.trackerapp.model.User;
+import com.trackerapp.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class UserServiceBenchmark {
+    
+    private static final String EMAIL = "bench.user@trackerpro.com";
+    private static final String PASSWORD = "bench-password";
+    
+    @Param({"10", "12"})
+    public int strength;
+    
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private final AtomicLong sequence = new AtomicLong();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(Map.of("tracker.password.bcrypt-strength", strength));
+        userService = context.getBean(UserService.class);
+        userService.registerUser(newUser(EMAIL, "BENCH-0")).join();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Optional<User> authenticateHit() {
+        return userService.authenticateUser(EMAIL, PASSWORD).join();
+    }
+    
+    @Benchmark
+    public Optional<User> authenticateMiss() {
+        return userService.authenticateUser("nobody@trackerpro.com", PASSWORD).join();
+    }
+    
+    @Benchmark
+    public Optional<User> authenticateWrongPassword() {
+        return userService.authenticateUser(EMAIL, "wrong-password").join();
+    }
+    
+    @Benchmark
+    public User registerUser() {
+        long id = sequence.incrementAndGet();
+        return userService.registerUser(newUser("bench" + id + "@trackerpro.com", "BENCH-" + id)).join();
+    }
+    
+    private static User newUser(String email, String empId) {
+        User user = new User();
+        user.setFullName("Bench User");
+        user.setEmail(email);
+        user.setPassword(PASSWORD);
+        user.setDepartment("Engineering");
+        user.setEmpId(empId);
+        user.setMobileNo("+91-9000000000");
+        return user;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.trackerapp.config;
+
+import com.trackerapp.model.Role;
+import com.trackerapp.model.User;
+import com.trackerapp.service.AuthTokenService;
+import com.trackerapp.service.UserVersionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of restoring authentication in session mode vs signed-token mode
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthModeBenchmark {
+
+    static final String COOKIE_NAME = "TRACKER_AUTH";
+
+    @Param({"session", "token"})
+    public String mode;
+
+    private final FilterChain noOpChain = (request, response) -> { };
+
+    private SessionAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        UserVersionRegistry registry = new UserVersionRegistry();
+        AuthTokenService tokenService = tokenService(mode, registry);
+        filter = new SessionAuthenticationFilter(new SimpleMeterRegistry(), tokenService);
+        response = new MockHttpServletResponse();
+        request = new MockHttpServletRequest("GET", "/dashboard");
+
+        User user = benchUser(42L);
+        if (tokenService.isTokenMode()) {
+            request.setCookies(new Cookie(COOKIE_NAME, tokenService.issue(user)));
+        } else {
+            MockHttpSession session = new MockHttpSession();
+            session.setAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE,
+                    new AuthenticationSnapshot(user, registry.stampFor(user.getId(), user.getVersion())));
+            request.setSession(session);
+        }
+    }
+
+    @Benchmark
+    public void authenticate() throws Exception {
+        filter.doFilterInternal(request, response, noOpChain);
+        SecurityContextHolder.clearContext();
+    }
+
+    static AuthTokenService tokenService(String mode, UserVersionRegistry registry) throws Exception {
+        AuthTokenService tokenService = new AuthTokenService();
+        ReflectionTestUtils.setField(tokenService, "userVersionRegistry", registry);
+        ReflectionTestUtils.setField(tokenService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenService, "mode", mode);
+        ReflectionTestUtils.setField(tokenService, "keys",
+                "bench:" + Base64.getEncoder().encodeToString(new byte[32]));
+        ReflectionTestUtils.setField(tokenService, "ttlMinutes", 480L);
+        ReflectionTestUtils.setField(tokenService, "cookieName", COOKIE_NAME);
+        tokenService.init();
+        return tokenService;
+    }
+
+    static User benchUser(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("bench.user" + id + "@trackerpro.com");
+        user.setFullName("Bench User " + id);
+        user.setRole(Role.USER);
+        return user;
+    }
+}
@@ -0,0 +1,117 @@
+package com.trackerapp.config;
+
+import com.trackerapp.model.User;
+import com.trackerapp.service.AuthTokenService;
+import com.trackerapp.service.UserVersionRegistry;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.session.StandardSession;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server heap retained for 100k logged-in users in each auth mode. Session
+ * mode holds one Tomcat session plus snapshot per user; compact mode holds a
+ * 64-byte off-heap record per session (reported as offHeapBytes) and a
+ * bounded cache of snapshots; token mode holds only version stamps for those
+ * users, with the token itself carried by the client on every request
+ * (reported as cookieBytes).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+// EVENTS counters add up across iterations, so a single measured iteration keeps them per-100k
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:+UseSerialGC"})
+public class AuthModeFootprintBenchmark {
+
+    private static final int USERS = 100_000;
+
+    @Param({"session", "compact", "token"})
+    public String mode;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytesPer100kUsers;
+        public long cookieBytes;
+        public long offHeapBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytesPer100kUsers = 0;
+            cookieBytes = 0;
+            offHeapBytes = 0;
+        }
+    }
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    @Benchmark
+    public Object retainedState(Footprint footprint) throws Exception {
+        UserVersionRegistry registry = new UserVersionRegistry();
+        AuthTokenService tokenService = AuthModeBenchmark.tokenService(mode, registry);
+        StandardManager manager = new StandardManager();
+        manager.setContext(new StandardContext());
+        // Default principal cache size; the records are sized for every user, so nothing is evicted
+        CompactSessionRepository compact = "compact".equals(mode)
+                ? new CompactSessionRepository(USERS * 96L * 2, Duration.ofMinutes(30), 10_000, userId -> null, idle -> {})
+                : null;
+
+        long before = usedHeap();
+        Object[] retained = new Object[USERS];
+        for (int i = 0; i < USERS; i++) {
+            User user = AuthModeBenchmark.benchUser(i + 1);
+            if (tokenService.isTokenMode()) {
+                // Nothing is kept server-side beyond the version stamp
+                registry.stampFor(user.getId(), user.getVersion());
+                footprint.cookieBytes = tokenService.issue(user).length();
+            } else if (compact != null) {
+                CompactSessionRepository.CompactSession session = compact.createSession();
+                session.setAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE,
+                        new AuthenticationSnapshot(user, registry.stampFor(user.getId(), user.getVersion())));
+                compact.save(session);
+            } else {
+                StandardSession session = new StandardSession(manager);
+                session.setValid(true);
+                session.setId(Long.toHexString(Double.doubleToLongBits(Math.random())) + i, false);
+                session.setAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE,
+                        new AuthenticationSnapshot(user, registry.stampFor(user.getId(), user.getVersion())), false);
+                retained[i] = session;
+            }
+        }
+        if (compact != null) {
+            compact.principalCache().cleanUp();
+            footprint.offHeapBytes = (long) compact.capacity() * CompactSessionRepository.RECORD_SIZE;
+        }
+        footprint.retainedBytesPer100kUsers = usedHeap() - before;
+        Reference.reachabilityFence(registry);
+        Reference.reachabilityFence(compact);
+        return retained;
+    }
+
+    private long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
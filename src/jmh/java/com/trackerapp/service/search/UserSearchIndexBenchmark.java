@@ -0,0 +1,101 @@
+package com.trackerapp.service.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Query latency distribution (p99 in the SampleTime output) and heap footprint of the search index
+// over a synthetic directory. The setup prints the index's own estimate next to the measured heap growth.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class UserSearchIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+        "Aarav", "Aditi", "Anika", "Arjun", "Diya", "Ishaan", "Kavya", "Meera", "Nikhil", "Priya",
+        "Rahul", "Riya", "Rohan", "Saanvi", "Sameer", "Sneha", "Tanvi", "Varun", "Vikram", "Zara",
+        "James", "Maria", "David", "Sarah", "Michael", "Laura", "Daniel", "Emma", "Thomas", "Olivia"
+    };
+    private static final String[] LAST_NAMES = {
+        "Sharma", "Verma", "Patel", "Iyer", "Reddy", "Nair", "Gupta", "Singh", "Menon", "Rao",
+        "Kapoor", "Joshi", "Bose", "Das", "Mehta", "Chopra", "Smith", "Garcia", "Miller", "Brown",
+        "Wilson", "Moore", "Taylor", "Anderson", "Clark", "Lewis", "Walker", "Young", "King", "Scott"
+    };
+    private static final String[] DEPARTMENTS = {
+        "Engineering", "Finance", "Human Resources", "Marketing", "Operations", "Sales",
+        "Legal", "Support", "Procurement", "Research", "Administration", "Quality Assurance"
+    };
+    private static final int QUERIES = 4096;
+
+    @Param({"100000", "1000000"})
+    public int users;
+
+    private TrigramIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+        SplittableRandom random = new SplittableRandom(42);
+        index = new TrigramIndex(users);
+        for (int i = 1; i <= users; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            index.put(i, first + " " + last,
+                    first.toLowerCase() + "." + last.toLowerCase() + i + "@trackerpro.com",
+                    String.format("EMP%07d", i),
+                    DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]);
+        }
+        index.trim();
+
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        TrigramIndex.MemoryReport report = index.memory();
+        System.out.printf("%nSearch index: %d users, %d grams (%d as bitmaps), %d postings%n",
+                report.documents(), report.grams(), report.bitmaps(), report.postingEntries());
+        System.out.printf("  estimated: %,d bytes (documents %,d, postings %,d), %.0f bytes/user%n",
+                report.totalBytes(), report.documentBytes(), report.postingBytes(), report.bytesPerDocument());
+        System.out.printf("  measured heap growth: %,d bytes%n", heapAfter - heapBefore);
+
+        // Typeahead as typed: name prefixes of growing length, email fragments, employee IDs, two-word queries
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            queries[i] = switch (i % 5) {
+                case 0 -> first.substring(0, 1 + random.nextInt(first.length()));
+                case 1 -> last.substring(0, Math.min(last.length(), 3 + random.nextInt(3)));
+                case 2 -> String.format("EMP%07d", 1 + random.nextInt(users)).substring(0, 6 + random.nextInt(5));
+                case 3 -> first + " " + last.substring(0, 2);
+                default -> DEPARTMENTS[random.nextInt(DEPARTMENTS.length)].substring(0, 3) + " " + first;
+            };
+        }
+    }
+
+    @Benchmark
+    public UserSearchResult search() {
+        String query = queries[next++ & (QUERIES - 1)];
+        return index.search(query, 10, 300);
+    }
+}
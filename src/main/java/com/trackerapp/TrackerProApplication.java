@@ -2,8 +2,10 @@ package com.trackerapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TrackerProApplication {
     public static void main(String[] args) {
         SpringApplication.run(TrackerProApplication.class, args);
@@ -0,0 +1,74 @@
+package com.trackerapp.config;
+
+import com.trackerapp.model.Role;
+import com.trackerapp.model.User;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable, pre-built authentication stored in the session at login, so
+ * that {@link SessionAuthenticationFilter} restores it with a single
+ * attribute lookup. Snapshots may be shared by all of a user's sessions, so
+ * they hold no mutable {@code SecurityContext}: each request gets its own.
+ */
+public final class AuthenticationSnapshot implements Serializable {
+
+    public static final String SESSION_ATTRIBUTE = AuthenticationSnapshot.class.getName();
+
+    private static final Map<Role, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        }
+    }
+
+    private final Long userId;
+    private final String email;
+    private final String fullName;
+    private final Role role;
+    private final long version;
+    private final Authentication authentication;
+
+    // Not serialized: a restored session has no live stamp and must log in again
+    private final transient AtomicLong currentVersion;
+
+    public AuthenticationSnapshot(User user, AtomicLong currentVersion) {
+        this.userId = user.getId();
+        this.email = user.getEmail();
+        this.fullName = user.getFullName();
+        this.role = user.getRole();
+        this.version = user.getVersion();
+        this.currentVersion = currentVersion;
+        this.authentication = UsernamePasswordAuthenticationToken.authenticated(email, null, AUTHORITIES.get(role));
+    }
+
+    public static List<GrantedAuthority> authoritiesFor(Role role) {
+        return AUTHORITIES.get(role);
+    }
+
+    // False once the user's role or enabled flag has changed since login
+    public boolean isCurrent() {
+        return currentVersion != null && currentVersion.get() == version;
+    }
+
+    public Long getUserId() { return userId; }
+
+    public String getEmail() { return email; }
+
+    public String getFullName() { return fullName; }
+
+    public Role getRole() { return role; }
+
+    public long getVersion() { return version; }
+
+    public Authentication getAuthentication() { return authentication; }
+}
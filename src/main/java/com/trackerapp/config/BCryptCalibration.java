@@ -0,0 +1,90 @@
+package com.trackerapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * Picks the BCrypt work factor whose hash time on this machine fits a
+ * latency budget. A cheap probe strength is timed and the cost doubled per
+ * extra round, so calibration itself stays well under the budget.
+ */
+final class BCryptCalibration {
+    
+    private static final Logger log = LoggerFactory.getLogger(BCryptCalibration.class);
+    
+    private static final int PROBE_STRENGTH = 8;
+    private static final int WARMUP_HASHES = 20;
+    private static final int PROBE_SAMPLES = 5;
+    
+    private BCryptCalibration() {}
+    
+    static int calibrate(long budgetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder warmup = new BCryptPasswordEncoder(4);
+        for (int i = 0; i < WARMUP_HASHES; i++) {
+            warmup.encode("calibration");
+        }
+        
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        long[] samples = new long[PROBE_SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        double probeMillis = samples[samples.length / 2] / 1e6;
+        
+        // Highest strength whose estimated cost still fits the budget
+        int strength = PROBE_STRENGTH;
+        while (strength < 31 && estimate(probeMillis, strength + 1) <= budgetMillis) {
+            strength++;
+        }
+        while (strength > 4 && estimate(probeMillis, strength) > budgetMillis) {
+            strength--;
+        }
+        int chosen = Math.max(minStrength, Math.min(maxStrength, strength));
+        
+        log.info("BCrypt calibrated to strength {} (~{} ms per hash, budget {} ms, allowed {}..{})",
+                chosen, Math.round(estimate(probeMillis, chosen)), budgetMillis, minStrength, maxStrength);
+        return chosen;
+    }
+    
+    private static double estimate(double probeMillis, int strength) {
+        return probeMillis * Math.pow(2, strength - PROBE_STRENGTH);
+    }
+    
+    /**
+     * Flags any stored hash whose cost differs from the target, in either
+     * direction, so re-calibration on new hardware converges both ways.
+     * The stock encoder only ever asks for upgrades.
+     */
+    static final class TargetStrengthEncoder extends BCryptPasswordEncoder {
+        
+        private final int strength;
+        
+        TargetStrengthEncoder(int strength) {
+            super(strength);
+            this.strength = strength;
+        }
+        
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            // $2a$10$... : the cost is the two digits after the version
+            if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+                return false;
+            }
+            int costStart = encodedPassword.indexOf('$', 1) + 1;
+            if (costStart <= 0 || costStart + 2 > encodedPassword.length()) {
+                return false;
+            }
+            try {
+                return Integer.parseInt(encodedPassword, costStart, costStart + 2, 10) != strength;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.trackerapp.config;
+
+import com.trackerapp.model.User;
+import com.trackerapp.service.UserService;
+import com.trackerapp.service.UserVersionRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Replaces the container's in-heap sessions with {@link CompactSessionRepository}
+ * for every {@code HttpSession} in the application. Set
+ * {@code tracker.sessions.store=container} to go back to Tomcat sessions.
+ */
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnProperty(name = "tracker.sessions.store", havingValue = "compact", matchIfMissing = true)
+public class CompactSessionConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(CompactSessionConfig.class);
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${tracker.sessions.max-memory-mb:16}")
+    private long maxMemoryMb;
+    
+    @Value("${tracker.sessions.max-principals:10000}")
+    private long maxPrincipals;
+    
+    @Value("${server.servlet.session.timeout:30m}")
+    private Duration timeout;
+    
+    // Empty = no snapshots, sessions end with the process
+    @Value("${tracker.sessions.snapshot-file:./sessions/sessions.dat}")
+    private String snapshotFile;
+    
+    private CompactSessionRepository repository;
+    
+    // UserService is lazy: it is only needed to rebuild a principal, long after startup
+    @Bean
+    public CompactSessionRepository sessionRepository(@Lazy UserService userService,
+                                                      UserVersionRegistry userVersionRegistry) {
+        Counter evictedIdle = evictionCounter("idle");
+        Counter evictedCapacity = evictionCounter("capacity");
+        
+        repository = new CompactSessionRepository(maxMemoryMb << 20, timeout, maxPrincipals,
+                userId -> userService.findById(userId)
+                        .filter(User::isEnabled)
+                        .map(user -> new AuthenticationSnapshot(user,
+                                userVersionRegistry.stampFor(user.getId(), user.getVersion())))
+                        .orElse(null),
+                idle -> (idle ? evictedIdle : evictedCapacity).increment());
+        
+        Gauge.builder("tracker.sessions.active", repository, CompactSessionRepository::size)
+                .description("Sessions held by the compact session store")
+                .register(meterRegistry);
+        Gauge.builder("tracker.sessions.capacity", repository, CompactSessionRepository::capacity)
+                .description("Sessions the compact store holds before evicting the least recently used")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, repository.principalCache(), "sessions.principals");
+        
+        if (!snapshotFile.isBlank()) {
+            try {
+                int loaded = repository.readSnapshot(Path.of(snapshotFile));
+                log.info("Restored {} sessions from {}", loaded, snapshotFile);
+            } catch (IOException e) {
+                log.warn("Could not restore sessions from {}; starting empty", snapshotFile, e);
+            }
+        }
+        return repository;
+    }
+    
+    @Scheduled(fixedDelayString = "${tracker.sessions.expiry-interval-ms:60000}")
+    public void expireIdle() {
+        repository.expireIdle();
+    }
+    
+    // A crash loses at most one interval of new logins; a clean shutdown loses none
+    @Scheduled(initialDelayString = "${tracker.sessions.snapshot-interval-ms:300000}",
+               fixedDelayString = "${tracker.sessions.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        writeSnapshot();
+    }
+    
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        writeSnapshot();
+    }
+    
+    private void writeSnapshot() {
+        if (snapshotFile.isBlank() || repository == null) {
+            return;
+        }
+        try {
+            int written = repository.writeSnapshot(Path.of(snapshotFile));
+            log.debug("Saved {} sessions to {}", written, snapshotFile);
+        } catch (IOException e) {
+            log.warn("Could not save sessions to {}", snapshotFile, e);
+        }
+    }
+    
+    private Counter evictionCounter(String reason) {
+        return Counter.builder("tracker.sessions.evicted")
+                .description("Sessions removed by the compact store other than by logout")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
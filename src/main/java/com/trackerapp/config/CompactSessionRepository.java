@@ -0,0 +1,767 @@
+package com.trackerapp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trackerapp.model.Role;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * Spring Session repository that keeps each session as one fixed 64-byte
+ * record in off-heap memory allocated up front: 128-bit id, timestamps, and
+ * for a logged-in session the user id, user version and role ordinal. The
+ * record count is derived from a memory ceiling; when it is reached, the
+ * least recently used session is evicted. Sessions idle past their timeout
+ * are removed on lookup and by {@link #expireIdle}.
+ *
+ * <p>The {@link AuthenticationSnapshot} that the application stores in the
+ * session is not kept per session. It is shared per user in a bounded
+ * cache and rebuilt from the user record on a miss, for example after a
+ * restart. If the user's version no longer matches the session, the session
+ * loses its authentication, as it would have with the in-heap snapshot.
+ * Any other attributes are kept on the heap next to the record, in a map
+ * allocated only for sessions that have them. They are dropped with the
+ * record and are not written to the restart snapshot.
+ *
+ * <p>Records are partitioned into shards by session id, each with its own
+ * lock, hash index and LRU list in primitive arrays.
+ */
+public class CompactSessionRepository implements SessionRepository<CompactSessionRepository.CompactSession> {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactSessionRepository.class);
+
+    static final int RECORD_SIZE = 64;
+
+    // Record layout, little-endian
+    private static final int ID_HIGH = 0;
+    private static final int ID_LOW = 8;
+    private static final int CREATED = 16;
+    private static final int LAST_ACCESSED = 24;
+    private static final int MAX_INACTIVE_SECONDS = 32;
+    private static final int ROLE = 36;
+    private static final int USER_ID = 40;
+    private static final int VERSION = 48;
+
+    // Per record on the heap: hash index (at most four ints, load factor <= 0.5), two LRU links
+    // and the reference to any other attributes
+    static final int INDEX_OVERHEAD = 28;
+    private static final int MAX_RECORDS_PER_SHARD = 1 << 24;
+
+    private static final long SNAPSHOT_MAGIC = 0x5452_4B53_4553_5331L; // "TRKSESS1"
+    private static final int SNAPSHOT_HEADER = 24;
+
+    private static final Role[] ROLES = Role.values();
+
+    private final SecureRandom random = new SecureRandom();
+    private final Shard[] shards;
+    private final int shardMask;
+    private final int capacity;
+    private final Duration defaultMaxInactive;
+    private final Cache<Long, AuthenticationSnapshot> principals;
+    private final LongFunction<AuthenticationSnapshot> principalLoader;
+    private final EvictionListener evictionListener;
+
+    public interface EvictionListener {
+        void evicted(boolean idle);
+    }
+
+    public record UserSessions(long userId, Role role, int sessions, Instant lastAccessedAt) {}
+
+    /**
+     * @param maxMemoryBytes   ceiling for session records and their index
+     * @param principalLoader  builds a current snapshot for a user id, or returns null if the user is gone
+     */
+    public CompactSessionRepository(long maxMemoryBytes, Duration defaultMaxInactive, long maxPrincipals,
+                                    LongFunction<AuthenticationSnapshot> principalLoader,
+                                    EvictionListener evictionListener) {
+        int shardCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4));
+        int perShard = (int) Math.max(1, Math.min(MAX_RECORDS_PER_SHARD,
+                maxMemoryBytes / (RECORD_SIZE + INDEX_OVERHEAD) / shardCount));
+
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(perShard);
+        }
+        this.shardMask = shardCount - 1;
+        this.capacity = perShard * shardCount;
+        this.defaultMaxInactive = defaultMaxInactive;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxPrincipals)
+                .expireAfterAccess(defaultMaxInactive)
+                .recordStats()
+                .build();
+        this.principalLoader = principalLoader;
+        this.evictionListener = evictionListener;
+    }
+
+    @Override
+    public CompactSession createSession() {
+        long now = System.currentTimeMillis();
+        // Low bit set: an all-zero id marks an unparseable one
+        return new CompactSession(this, random.nextLong(), random.nextLong() | 1, now, now,
+                (int) defaultMaxInactive.toSeconds(), -1, 0, (byte) -1, true);
+    }
+
+    @Override
+    public void save(CompactSession session) {
+        if (session.isNew || session.originalHigh != session.idHigh || session.originalLow != session.idLow) {
+            if (!session.isNew) {
+                remove(session.originalHigh, session.originalLow);
+            }
+            session.originalHigh = session.idHigh;
+            session.originalLow = session.idLow;
+            session.isNew = false;
+        }
+
+        Shard shard = shardFor(session.idHigh);
+        boolean evicted;
+        shard.lock.lock();
+        try {
+            int slot = shard.find(session.idHigh, session.idLow);
+            evicted = false;
+            if (slot < 0) {
+                evicted = shard.freeHead < 0;
+                slot = shard.allocate();
+                shard.insert(slot, session.idHigh, session.idLow);
+            }
+            session.writeTo(shard.records, slot * RECORD_SIZE);
+            shard.attributes[slot] = session.attributes == null || session.attributes.isEmpty()
+                    ? null : new HashMap<>(session.attributes);
+            shard.touch(slot);
+        } finally {
+            shard.lock.unlock();
+        }
+        if (evicted) {
+            evictionListener.evicted(false);
+        }
+    }
+
+    @Override
+    public CompactSession findById(String id) {
+        long high = parseHalf(id, 0);
+        long low = parseHalf(id, 16);
+        if (high == 0 && low == 0) {
+            return null;
+        }
+
+        Shard shard = shardFor(high);
+        long now = System.currentTimeMillis();
+        CompactSession session;
+        shard.lock.lock();
+        try {
+            int slot = shard.find(high, low);
+            if (slot < 0) {
+                return null;
+            }
+            session = CompactSession.readFrom(this, shard.records, slot * RECORD_SIZE, shard.attributes[slot]);
+            if (session.isExpired(now)) {
+                shard.remove(slot);
+                session = null;
+            } else {
+                shard.touch(slot);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+        if (session == null) {
+            evictionListener.evicted(true);
+        }
+        return session;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        long high = parseHalf(id, 0);
+        long low = parseHalf(id, 16);
+        if (high != 0 || low != 0) {
+            remove(high, low);
+        }
+    }
+
+    // Removes sessions idle past their timeout, oldest first
+    public int expireIdle() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                int slot = shard.tail;
+                while (slot >= 0) {
+                    int previous = shard.prev[slot];
+                    if (isExpired(shard.records, slot * RECORD_SIZE, now)) {
+                        shard.remove(slot);
+                        expired++;
+                    }
+                    slot = previous;
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        for (int i = 0; i < expired; i++) {
+            evictionListener.evicted(true);
+        }
+        return expired;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public Cache<Long, AuthenticationSnapshot> principalCache() {
+        return principals;
+    }
+
+    // Logged-in users by number of live sessions, most first; anonymous sessions are not listed
+    public List<UserSessions> sessionsByUser(int limit) {
+        long now = System.currentTimeMillis();
+        Map<Long, long[]> byUser = new HashMap<>();
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                for (int slot = shard.head; slot >= 0; slot = shard.next[slot]) {
+                    int base = slot * RECORD_SIZE;
+                    long userId = shard.records.getLong(base + USER_ID);
+                    if (userId < 0 || isExpired(shard.records, base, now)) {
+                        continue;
+                    }
+                    long[] stats = byUser.computeIfAbsent(userId, id -> new long[3]);
+                    stats[0]++;
+                    stats[1] = Math.max(stats[1], shard.records.getLong(base + LAST_ACCESSED));
+                    stats[2] = shard.records.get(base + ROLE);
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return byUser.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                .limit(limit)
+                .map(entry -> new UserSessions(entry.getKey(), role((byte) entry.getValue()[2]),
+                        (int) entry.getValue()[0], Instant.ofEpochMilli(entry.getValue()[1])))
+                .toList();
+    }
+
+    /**
+     * Writes every live record to {@code file}, least recently used first,
+     * via a temporary file and an atomic rename. The file holds live session
+     * ids, so it is created readable by the owner only where the file system
+     * allows it.
+     */
+    public int writeSnapshot(Path file) throws IOException {
+        long now = System.currentTimeMillis();
+        List<ByteBuffer> chunks = new ArrayList<>(shards.length);
+        int count = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                ByteBuffer chunk = ByteBuffer.allocate(shard.size * RECORD_SIZE);
+                for (int slot = shard.tail; slot >= 0; slot = shard.prev[slot]) {
+                    if (!isExpired(shard.records, slot * RECORD_SIZE, now)) {
+                        chunk.put(chunk.position(), shard.records, slot * RECORD_SIZE, RECORD_SIZE);
+                        chunk.position(chunk.position() + RECORD_SIZE);
+                    }
+                }
+                chunks.add(chunk.flip());
+                count += chunk.remaining() / RECORD_SIZE;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        Files.deleteIfExists(temporary);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(temporary, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(SNAPSHOT_MAGIC).putInt(RECORD_SIZE).putInt(count).putLong(now).flip();
+            channel.write(header);
+            for (ByteBuffer chunk : chunks) {
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    // Loads sessions written by writeSnapshot, skipping any that expired while the application was down
+    public int readSnapshot(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return 0;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (data.remaining() < SNAPSHOT_HEADER || data.getLong(0) != SNAPSHOT_MAGIC || data.getInt(8) != RECORD_SIZE) {
+            log.warn("Ignoring session snapshot {}: unknown format", file);
+            return 0;
+        }
+        int count = Math.min(data.getInt(12), (data.remaining() - SNAPSHOT_HEADER) / RECORD_SIZE);
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+        for (int i = 0; i < count; i++) {
+            int base = SNAPSHOT_HEADER + i * RECORD_SIZE;
+            if (isExpired(data, base, now)) {
+                continue;
+            }
+            long high = data.getLong(base + ID_HIGH);
+            long low = data.getLong(base + ID_LOW);
+            Shard shard = shardFor(high);
+            shard.lock.lock();
+            try {
+                int slot = shard.find(high, low);
+                if (slot < 0) {
+                    slot = shard.allocate();
+                    shard.insert(slot, high, low);
+                }
+                shard.records.put(slot * RECORD_SIZE, data, base, RECORD_SIZE);
+                shard.touch(slot);
+                loaded++;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return loaded;
+    }
+
+    AuthenticationSnapshot principal(long userId, long version) {
+        AuthenticationSnapshot snapshot = principals.getIfPresent(userId);
+        if (snapshot != null && snapshot.getVersion() == version) {
+            return snapshot;
+        }
+        snapshot = principalLoader.apply(userId);
+        if (snapshot == null || snapshot.getVersion() != version) {
+            // Deleted, or role / enabled changed since this session logged in
+            return null;
+        }
+        principals.put(userId, snapshot);
+        return snapshot;
+    }
+
+    void cachePrincipal(AuthenticationSnapshot snapshot) {
+        principals.put(snapshot.getUserId(), snapshot);
+    }
+
+    private void remove(long high, long low) {
+        Shard shard = shardFor(high);
+        shard.lock.lock();
+        try {
+            int slot = shard.find(high, low);
+            if (slot >= 0) {
+                shard.remove(slot);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private Shard shardFor(long idHigh) {
+        return shards[(int) (idHigh >>> 32) & shardMask];
+    }
+
+    private static boolean isExpired(ByteBuffer records, int base, long now) {
+        int maxInactive = records.getInt(base + MAX_INACTIVE_SECONDS);
+        return maxInactive >= 0 && now - records.getLong(base + LAST_ACCESSED) >= maxInactive * 1000L;
+    }
+
+    private static Role role(byte ordinal) {
+        return ordinal >= 0 && ordinal < ROLES.length ? ROLES[ordinal] : null;
+    }
+
+    // Ids are 32 lowercase hex digits; anything else maps to 0, which is never issued
+    private static long parseHalf(String id, int offset) {
+        if (id == null || id.length() != 32) {
+            return 0;
+        }
+        long value = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            char c = id.charAt(i);
+            int digit = c >= '0' && c <= '9' ? c - '0' : c >= 'a' && c <= 'f' ? c - 'a' + 10 : -1;
+            if (digit < 0) {
+                return 0;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private static String format(long high, long low) {
+        char[] chars = new char[32];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = Character.forDigit((int) (high & 0xF), 16);
+            chars[16 + i] = Character.forDigit((int) (low & 0xF), 16);
+            high >>>= 4;
+            low >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * One partition: records in a direct buffer, an open-addressing index
+     * from id to slot (slot + 1, 0 = empty), and an LRU list threaded through
+     * {@code prev}/{@code next}. Free slots are chained through {@code next}.
+     * Guarded by {@code lock}.
+     */
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final ByteBuffer records;
+        final int[] index;
+        final int indexMask;
+        final int[] prev;
+        final int[] next;
+        final Map<String, Object>[] attributes;
+        int head = -1;
+        int tail = -1;
+        int freeHead;
+        int size;
+
+        @SuppressWarnings("unchecked")
+        Shard(int capacity) {
+            records = ByteBuffer.allocateDirect(capacity * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            index = new int[Integer.highestOneBit(capacity) << 2];
+            indexMask = index.length - 1;
+            prev = new int[capacity];
+            next = new int[capacity];
+            attributes = new Map[capacity];
+            for (int i = 0; i < capacity; i++) {
+                prev[i] = -1;
+                next[i] = i + 1 < capacity ? i + 1 : -1;
+            }
+        }
+
+        int find(long high, long low) {
+            for (int i = home(low); index[i] != 0; i = (i + 1) & indexMask) {
+                int slot = index[i] - 1;
+                int base = slot * RECORD_SIZE;
+                if (records.getLong(base + ID_LOW) == low && records.getLong(base + ID_HIGH) == high) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        void insert(int slot, long high, long low) {
+            records.putLong(slot * RECORD_SIZE + ID_HIGH, high);
+            records.putLong(slot * RECORD_SIZE + ID_LOW, low);
+            int i = home(low);
+            while (index[i] != 0) {
+                i = (i + 1) & indexMask;
+            }
+            index[i] = slot + 1;
+        }
+
+        // Takes a free slot, or evicts the least recently used session when there is none
+        int allocate() {
+            if (freeHead >= 0) {
+                int slot = freeHead;
+                freeHead = next[slot];
+                size++;
+                return slot;
+            }
+            int slot = tail;
+            unindex(slot);
+            unlink(slot);
+            attributes[slot] = null;
+            return slot;
+        }
+
+        void remove(int slot) {
+            unindex(slot);
+            unlink(slot);
+            records.putLong(slot * RECORD_SIZE + ID_HIGH, 0);
+            records.putLong(slot * RECORD_SIZE + ID_LOW, 0);
+            attributes[slot] = null;
+            next[slot] = freeHead;
+            freeHead = slot;
+            size--;
+        }
+
+        // Moves slot to the most recently used end
+        void touch(int slot) {
+            if (head == slot) {
+                return;
+            }
+            // Linked slots other than the head have a predecessor; a newly allocated slot has none
+            if (prev[slot] >= 0) {
+                unlink(slot);
+            }
+            prev[slot] = -1;
+            next[slot] = head;
+            if (head >= 0) {
+                prev[head] = slot;
+            }
+            head = slot;
+            if (tail < 0) {
+                tail = slot;
+            }
+        }
+
+        private void unlink(int slot) {
+            int p = prev[slot];
+            int n = next[slot];
+            if (p >= 0) {
+                next[p] = n;
+            } else if (head == slot) {
+                head = n;
+            }
+            if (n >= 0) {
+                prev[n] = p;
+            } else if (tail == slot) {
+                tail = p;
+            }
+            prev[slot] = -1;
+            next[slot] = -1;
+        }
+
+        // Backward-shift deletion keeps linear probing chains intact without tombstones
+        private void unindex(int slot) {
+            long low = records.getLong(slot * RECORD_SIZE + ID_LOW);
+            int i = home(low);
+            while (index[i] != slot + 1) {
+                if (index[i] == 0) {
+                    return;
+                }
+                i = (i + 1) & indexMask;
+            }
+            int j = i;
+            while (true) {
+                j = (j + 1) & indexMask;
+                if (index[j] == 0) {
+                    break;
+                }
+                int k = home(records.getLong((index[j] - 1) * RECORD_SIZE + ID_LOW));
+                boolean movable = i <= j ? (k <= i || k > j) : (k <= i && k > j);
+                if (movable) {
+                    index[i] = index[j];
+                    i = j;
+                }
+            }
+            index[i] = 0;
+        }
+
+        private int home(long low) {
+            return (int) (low ^ (low >>> 32)) & indexMask;
+        }
+    }
+
+    /**
+     * Request-scoped view of one record. Changes reach the store only
+     * through {@link CompactSessionRepository#save}, which the session
+     * filter calls at the end of each request that used the session.
+     */
+    public static final class CompactSession implements Session {
+
+        private final CompactSessionRepository repository;
+        private long idHigh;
+        private long idLow;
+        private long originalHigh;
+        private long originalLow;
+        private boolean isNew;
+        private final long creationTime;
+        private long lastAccessedTime;
+        private int maxInactiveSeconds;
+        private long userId;
+        private long version;
+        private byte role;
+        private AuthenticationSnapshot snapshot;
+        // Everything but the snapshot; null until the first such attribute is set
+        private Map<String, Object> attributes;
+
+        private CompactSession(CompactSessionRepository repository, long idHigh, long idLow, long creationTime,
+                               long lastAccessedTime, int maxInactiveSeconds, long userId, long version, byte role,
+                               boolean isNew) {
+            this.repository = repository;
+            this.idHigh = idHigh;
+            this.idLow = idLow;
+            this.originalHigh = idHigh;
+            this.originalLow = idLow;
+            this.creationTime = creationTime;
+            this.lastAccessedTime = lastAccessedTime;
+            this.maxInactiveSeconds = maxInactiveSeconds;
+            this.userId = userId;
+            this.version = version;
+            this.role = role;
+            this.isNew = isNew;
+        }
+
+        static CompactSession readFrom(CompactSessionRepository repository, ByteBuffer records, int base,
+                                       Map<String, Object> attributes) {
+            CompactSession session = new CompactSession(repository,
+                    records.getLong(base + ID_HIGH),
+                    records.getLong(base + ID_LOW),
+                    records.getLong(base + CREATED),
+                    records.getLong(base + LAST_ACCESSED),
+                    records.getInt(base + MAX_INACTIVE_SECONDS),
+                    records.getLong(base + USER_ID),
+                    records.getLong(base + VERSION),
+                    records.get(base + ROLE),
+                    false);
+            // A copy, so that changes stay with this request until it saves
+            session.attributes = attributes == null ? null : new HashMap<>(attributes);
+            return session;
+        }
+
+        void writeTo(ByteBuffer records, int base) {
+            records.putLong(base + CREATED, creationTime);
+            records.putLong(base + LAST_ACCESSED, lastAccessedTime);
+            records.putInt(base + MAX_INACTIVE_SECONDS, maxInactiveSeconds);
+            records.put(base + ROLE, role);
+            records.putLong(base + USER_ID, userId);
+            records.putLong(base + VERSION, version);
+        }
+
+        @Override
+        public String getId() {
+            return format(idHigh, idLow);
+        }
+
+        @Override
+        public String changeSessionId() {
+            idHigh = repository.random.nextLong();
+            idLow = repository.random.nextLong() | 1;
+            return getId();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getAttribute(String attributeName) {
+            if (!AuthenticationSnapshot.SESSION_ATTRIBUTE.equals(attributeName)) {
+                return attributes == null ? null : (T) attributes.get(attributeName);
+            }
+            if (userId < 0) {
+                return null;
+            }
+            if (snapshot == null) {
+                snapshot = repository.principal(userId, version);
+                if (snapshot == null) {
+                    clearAuthentication();
+                }
+            }
+            return (T) snapshot;
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            if (attributes == null || attributes.isEmpty()) {
+                return userId >= 0 ? Set.of(AuthenticationSnapshot.SESSION_ATTRIBUTE) : Set.of();
+            }
+            Set<String> names = new HashSet<>(attributes.keySet());
+            if (userId >= 0) {
+                names.add(AuthenticationSnapshot.SESSION_ATTRIBUTE);
+            }
+            return names;
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            if (attributeValue == null) {
+                removeAttribute(attributeName);
+                return;
+            }
+            if (!AuthenticationSnapshot.SESSION_ATTRIBUTE.equals(attributeName)) {
+                if (attributes == null) {
+                    attributes = new HashMap<>();
+                }
+                attributes.put(attributeName, attributeValue);
+                return;
+            }
+            if (!(attributeValue instanceof AuthenticationSnapshot value)) {
+                throw new IllegalArgumentException(attributeName + " must hold an AuthenticationSnapshot");
+            }
+            snapshot = value;
+            userId = value.getUserId();
+            version = value.getVersion();
+            role = (byte) value.getRole().ordinal();
+            repository.cachePrincipal(value);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            if (AuthenticationSnapshot.SESSION_ATTRIBUTE.equals(attributeName)) {
+                clearAuthentication();
+            } else if (attributes != null) {
+                attributes.remove(attributeName);
+            }
+        }
+
+        private void clearAuthentication() {
+            snapshot = null;
+            userId = -1;
+            version = 0;
+            role = -1;
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return Instant.ofEpochMilli(creationTime);
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            this.lastAccessedTime = lastAccessedTime.toEpochMilli();
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return Instant.ofEpochMilli(lastAccessedTime);
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            maxInactiveSeconds = (int) Math.min(Integer.MAX_VALUE, interval.toSeconds());
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return Duration.ofSeconds(maxInactiveSeconds);
+        }
+
+        @Override
+        public boolean isExpired() {
+            return isExpired(System.currentTimeMillis());
+        }
+
+        boolean isExpired(long now) {
+            return maxInactiveSeconds >= 0 && now - lastAccessedTime >= maxInactiveSeconds * 1000L;
+        }
+    }
+}
@@ -1,19 +1,52 @@
 package com.trackerapp.config;
 
 import com.trackerapp.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Seeds the default admin once the application accepts traffic, so neither
+ * the existence check nor the password hash delays startup. Set
+ * {@code tracker.admin.password-hash} to a precomputed BCrypt hash to skip
+ * hashing altogether.
+ */
 @Component
-public class DataInitializer implements CommandLineRunner {
+public class DataInitializer {
+    
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
     
     @Autowired
     private UserService userService;
     
-    @Override
-    public void run(String... args) throws Exception {
-        // Create default admin user
-        userService.createDefaultAdmin();
+    @Value("${tracker.admin.seed:true}")
+    private boolean seed;
+    
+    @Value("${tracker.admin.password-hash:}")
+    private String passwordHash;
+    
+    private final AtomicBoolean seeded = new AtomicBoolean();
+    
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (!seed || event.getState() != ReadinessState.ACCEPTING_TRAFFIC || !seeded.compareAndSet(false, true)) {
+            return;
+        }
+        // Own thread: listeners run in turn, and readiness must not wait for this one
+        Thread.ofVirtual().name("admin-seed").start(() -> {
+            try {
+                userService.createDefaultAdmin(passwordHash.isBlank() ? null : passwordHash);
+            } catch (RuntimeException e) {
+                // The application is already serving; a missing admin must not take it down
+                log.warn("Could not create the default admin user", e);
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.trackerapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+@ConditionalOnProperty(name = "tracker.db.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseAdmissionConfig {
+    
+    private static final int DEFAULT_POOL_SIZE = 10;
+    
+    // Static so the post-processor is registered before the DataSource bean is created
+    @Bean
+    public static BeanPostProcessor dataSourceAdmissionPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof AdmissionControlledDataSource) {
+                    return bean;
+                }
+                // 0 = match the pool, so permits line up with real connections
+                int permits = environment.getProperty("tracker.db.admission.permits", Integer.class, 0);
+                if (permits <= 0 && bean instanceof HikariDataSource hikari) {
+                    permits = hikari.getMaximumPoolSize();
+                }
+                if (permits <= 0) {
+                    // Hikari leaves an unset maximum at -1 until the pool starts, then uses 10
+                    permits = DEFAULT_POOL_SIZE;
+                }
+                long timeoutMillis = environment.getProperty("tracker.db.admission.timeout-ms", Long.class, 30000L);
+                return new AdmissionControlledDataSource(dataSource, permits, timeoutMillis);
+            }
+        };
+    }
+    
+    @Bean
+    public MeterBinder dataSourceAdmissionMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                if (dataSource.isWrapperFor(AdmissionControlledDataSource.class)) {
+                    dataSource.unwrap(AdmissionControlledDataSource.class).bindTo(registry);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package com.trackerapp.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * Marks a resource immutable only when its URL carried a content hash. The
+ * version resolver tags exactly those resources with an ETag; a request for
+ * the plain name ("/images/banner.png") keeps the handler's revalidating
+ * policy, since its content changes under the same URL on the next deploy.
+ */
+class FingerprintCacheResolver extends AbstractResourceResolver {
+
+    private final String cacheControl;
+
+    FingerprintCacheResolver(CacheControl cacheControl) {
+        this.cacheControl = cacheControl.getHeaderValue();
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource instanceof HttpResource httpResource && httpResource.getResponseHeaders().getETag() != null) {
+            return new FingerprintedResource(resource, httpResource, cacheControl);
+        }
+        return resource;
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    // Same body and headers, plus the Cache-Control that replaces the handler's
+    private static final class FingerprintedResource extends AbstractResource implements HttpResource {
+
+        private final Resource body;
+        private final HttpResource headers;
+        private final String cacheControl;
+
+        FingerprintedResource(Resource body, HttpResource headers, String cacheControl) {
+            this.body = body;
+            this.headers = headers;
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders responseHeaders = new HttpHeaders();
+            responseHeaders.putAll(headers.getResponseHeaders());
+            responseHeaders.setCacheControl(cacheControl);
+            return responseHeaders;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return body.getInputStream();
+        }
+
+        @Override
+        public boolean exists() {
+            return body.exists();
+        }
+
+        @Override
+        public boolean isReadable() {
+            return body.isReadable();
+        }
+
+        @Override
+        public URL getURL() throws IOException {
+            return body.getURL();
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return body.getURI();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return body.getFile();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return body.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return body.lastModified();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return body.createRelative(relativePath);
+        }
+
+        @Override
+        public String getFilename() {
+            return body.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return body.getDescription();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.trackerapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+@Configuration
+@ConditionalOnProperty(name = "tracker.pages.cache.enabled", havingValue = "true")
+public class PageCacheConfig {
+    
+    // Pages that render no per-user data; /dashboard must never be listed here
+    @Value("${tracker.pages.cache.paths:/,/login,/register,/success,/userlogin,/forget}")
+    private Set<String> paths;
+    
+    // Ahead of Spring Security, so cache hits skip the whole security chain
+    @Bean
+    public FilterRegistrationBean<RenderedPageCacheFilter> renderedPageCacheFilter(MeterRegistry meterRegistry) {
+        if (paths.contains("/dashboard")) {
+            throw new IllegalStateException("/dashboard is per-user and cannot be served from the page cache");
+        }
+        FilterRegistrationBean<RenderedPageCacheFilter> registration =
+                new FilterRegistrationBean<>(new RenderedPageCacheFilter(paths, meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,184 @@
+package com.trackerapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves anonymous pages whose output does not depend on the request from
+ * bytes rendered once. The first GET of a page goes through the security
+ * chain, controller and template engine as usual; its body, headers and a
+ * gzipped copy are kept, and later requests are answered here with a strong
+ * ETag, or a bodyless 304 when the client already has it.
+ */
+public class RenderedPageCacheFilter extends OncePerRequestFilter {
+    
+    // Recomputed per response, or owned by this filter
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "date", "content-length", "content-type", "transfer-encoding", "etag",
+            "cache-control", "pragma", "expires", "vary", "content-encoding");
+    
+    private final Set<String> paths;
+    private final Map<String, RenderedPage> pages = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notModified;
+    
+    public RenderedPageCacheFilter(Set<String> paths, MeterRegistry meterRegistry) {
+        this.paths = Set.copyOf(paths);
+        this.hits = outcomeCounter(meterRegistry, "hit");
+        this.misses = outcomeCounter(meterRegistry, "miss");
+        this.notModified = outcomeCounter(meterRegistry, "not_modified");
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method))
+                || request.getQueryString() != null
+                || !paths.contains(request.getRequestURI());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RenderedPage page = pages.get(request.getRequestURI());
+        if (page != null) {
+            serve(page, request, response);
+            return;
+        }
+        
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        misses.increment();
+        
+        page = capture(wrapper);
+        if (page == null) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        pages.putIfAbsent(request.getRequestURI(), page);
+        // The rendered body is still buffered in the wrapper; answer from the cached copy instead
+        serve(page, request, response);
+    }
+    
+    private void serve(RenderedPage page, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = page.gzipped != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? page.gzipEtag : page.etag;
+        
+        page.headers.forEach((name, values) -> {
+            response.setHeader(name, values.get(0));
+            for (int i = 1; i < values.size(); i++) {
+                response.addHeader(name, values.get(i));
+            }
+        });
+        response.setContentType(page.contentType);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // Cacheable, but revalidated on every use so a redeploy is picked up
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        
+        hits.increment();
+        byte[] body = gzip ? page.gzipped : page.body;
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        if (!"HEAD".equals(request.getMethod())) {
+            response.getOutputStream().write(body);
+        }
+    }
+    
+    private static RenderedPage capture(ContentCachingResponseWrapper wrapper) throws IOException {
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.getContentType() == null
+                || !wrapper.getContentType().startsWith("text/html")
+                || wrapper.containsHeader(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        // A session id rewritten into links belongs to one visitor only
+        if (new String(body, StandardCharsets.ISO_8859_1).contains(";jsessionid=")) {
+            return null;
+        }
+        
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : wrapper.getHeaderNames()) {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, List.copyOf(wrapper.getHeaders(name)));
+            }
+        }
+        
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return new RenderedPage(body, compressed.toByteArray(), wrapper.getContentType(), headers);
+    }
+    
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("tracker.pages.cache")
+                .description("Rendered page cache lookups by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    private static final class RenderedPage {
+        final byte[] body;
+        final byte[] gzipped;
+        final String etag;
+        final String gzipEtag;
+        final String contentType;
+        final Map<String, List<String>> headers;
+        
+        RenderedPage(byte[] body, byte[] gzipped, String contentType, Map<String, List<String>> headers) {
+            this.body = body;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            // Only worth serving when it actually saves bytes
+            this.gzipped = gzipped.length < body.length ? gzipped : null;
+            this.gzipEtag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+    }
+}
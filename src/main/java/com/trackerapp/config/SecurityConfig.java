@@ -1,40 +1,124 @@
 package com.trackerapp.config;
 
+import com.trackerapp.service.AuthTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Arrays;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
     
+    private static final String BCRYPT = "bcrypt";
+    
+    // 0 means calibrate to tracker.password.hash-budget-ms on this machine
+    @Value("${tracker.password.bcrypt-strength:0}")
+    private int bcryptStrength;
+    
+    @Value("${tracker.password.hash-budget-ms:250}")
+    private long hashBudgetMillis;
+    
+    @Value("${tracker.password.min-strength:10}")
+    private int minStrength;
+    
+    @Value("${tracker.password.max-strength:16}")
+    private int maxStrength;
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : BCryptCalibration.calibrate(hashBudgetMillis, minStrength, maxStrength);
+        
+        // New hashes are stored as {bcrypt}$2a$<strength>$..., so algorithm and cost travel with them
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT,
+                Map.of(BCRYPT, new BCryptCalibration.TargetStrengthEncoder(strength)));
+        // Hashes written before prefixes were introduced are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
     
     @Bean
-    public SessionAuthenticationFilter sessionAuthenticationFilter() {
-        return new SessionAuthenticationFilter();
+    public SessionAuthenticationFilter sessionAuthenticationFilter(MeterRegistry meterRegistry,
+                                                                   AuthTokenService authTokenService) {
+        return new SessionAuthenticationFilter(meterRegistry, authTokenService);
+    }
+    
+    // Runs inside the security chain only; stop Boot from also registering it as a servlet filter
+    @Bean
+    public FilterRegistrationBean<SessionAuthenticationFilter> sessionAuthenticationFilterRegistration(
+            SessionAuthenticationFilter sessionAuthenticationFilter) {
+        FilterRegistrationBean<SessionAuthenticationFilter> registration =
+                new FilterRegistrationBean<>(sessionAuthenticationFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+    
+    // Static assets need no session, security context or request cache: a near-empty chain that
+    // also leaves Cache-Control to the resource handler instead of forcing no-cache
+    @Bean
+    @Order(0)
+    public SecurityFilterChain staticResourcesFilterChain(HttpSecurity http) throws Exception {
+        // Plain path matchers: the String overload builds MVC matchers, which need a web context
+        RequestMatcher[] matchers = Arrays.stream(WebResourceConfig.STATIC_DIRECTORIES)
+                .map(directory -> AntPathRequestMatcher.antMatcher("/" + directory + "/**"))
+                .toArray(RequestMatcher[]::new);
+        http
+            .securityMatcher(new OrRequestMatcher(matchers))
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+            .csrf(csrf -> csrf.disable())
+            .requestCache(cache -> cache.disable())
+            .securityContext(context -> context.disable())
+            .sessionManagement(session -> session.disable())
+            .headers(headers -> headers.cacheControl(cache -> cache.disable()));
+        
+        return http.build();
     }
     
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, SessionAuthenticationFilter sessionAuthenticationFilter,
+                                           AuthTokenService authTokenService) throws Exception {
+        if (authTokenService.isTokenMode()) {
+            // Signed-token mode keeps no server-side session at all
+            http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        }
+        
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
+                // Probes stay open to the orchestrator; metrics and every other endpoint are for admins
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
                 .requestMatchers("/", "/login", "/register", "/success", "/userlogin", "/forget",
                                 "/api/auth/**", "/css/**", "/js/**", "/images/**", "/static/**",
                                 "/h2-console/**").permitAll()
-                .requestMatchers("/dashboard", "/profile", "/reports", "/settings").authenticated()
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/dashboard", "/profile", "/reports", "/settings", "/api/dashboard/**").authenticated()
                 .anyRequest().permitAll()
             )
-            .addFilterBefore(sessionAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(sessionAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Login always redirects to /dashboard, so saved requests are never replayed; without this,
+            // every anonymous hit on a protected page would create a session just to hold one
+            .requestCache(cache -> cache.disable())
             .formLogin(form -> form.disable())
             .logout(logout -> logout
                 .logoutUrl("/logout")
@@ -1,41 +1,91 @@
 package com.trackerapp.config;
 
+import com.trackerapp.service.AuthTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 public class SessionAuthenticationFilter extends OncePerRequestFilter {
 
+    // Served without authentication, so skip the session lookup entirely
+    private static final String[] STATIC_PREFIXES = {"/images/", "/css/", "/js/", "/static/", "/favicon.ico"};
+    
+    private static final String ALREADY_FILTERED_ATTRIBUTE =
+            SessionAuthenticationFilter.class.getName() + ALREADY_FILTERED_SUFFIX;
+    
+    private final AuthTokenService authTokenService;
+    private final Timer overheadTimer;
+    
+    public SessionAuthenticationFilter(MeterRegistry meterRegistry, AuthTokenService authTokenService) {
+        this.authTokenService = authTokenService;
+        this.overheadTimer = Timer.builder("tracker.security.session.filter")
+                .description("Time spent restoring authentication from the session, excluding the rest of the chain")
+                .register(meterRegistry);
+    }
+    
+    // Constant name; the inherited default concatenates a new string per request
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return ALREADY_FILTERED_ATTRIBUTE;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        for (String prefix : STATIC_PREFIXES) {
+            if (uri.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
+        long start = System.nanoTime();
+        
+        if (authTokenService.isTokenMode()) {
+            // Stateless mode: everything needed is in the signed token
+            Authentication authentication = authTokenService.verify(authTokenService.resolveToken(request));
+            if (authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+            overheadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
         HttpSession session = request.getSession(false);
         
         if (session != null) {
-            Long userId = (Long) session.getAttribute("userId");
-            String userEmail = (String) session.getAttribute("userEmail");
-            String userRole = (String) session.getAttribute("userRole");
+            Object attribute = session.getAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE);
             
-            if (userId != null && userEmail != null && userRole != null) {
-                // Create authentication token
-                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + userRole);
-                UsernamePasswordAuthenticationToken authToken = 
-                    new UsernamePasswordAuthenticationToken(userEmail, null, Arrays.asList(authority));
-                
-                // Set authentication in Security Context
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            if (attribute instanceof AuthenticationSnapshot snapshot) {
+                if (snapshot.isCurrent()) {
+                    // A context of its own: logout clears the context, and other sessions share the snapshot
+                    SecurityContext context = SecurityContextHolder.getContextHolderStrategy().createEmptyContext();
+                    context.setAuthentication(snapshot.getAuthentication());
+                    SecurityContextHolder.setContext(context);
+                } else {
+                    // Role or enabled flag changed since login: require a fresh login
+                    session.removeAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE);
+                }
             }
         }
+        overheadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,74 @@
+package com.trackerapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.CachingResourceResolver;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves static assets under content-hashed URLs ("banner-&lt;md5&gt;.png"),
+ * which templates get by writing {@code @{/images/banner.png}}, so they can
+ * be cached as immutable; the plain names stay revalidated. Precompressed (.gz, .br) and WebP siblings produced
+ * by the optimize-assets build step are picked when the client accepts them.
+ */
+@Configuration
+public class WebResourceConfig implements WebMvcConfigurer {
+    
+    static final String[] STATIC_DIRECTORIES = {"images", "css", "js"};
+    
+    @Value("${tracker.static.cache-days:365}")
+    private long cacheDays;
+    
+    // Per representation, so gzip, brotli and WebP bodies never share a tag
+    private final Map<String, String> contentEtags = new ConcurrentHashMap<>();
+    
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        CacheControl immutable = CacheControl.maxAge(cacheDays, TimeUnit.DAYS).cachePublic().immutable();
+        for (String directory : STATIC_DIRECTORIES) {
+            registry.addResourceHandler("/" + directory + "/**")
+                    .addResourceLocations("classpath:/static/" + directory + "/")
+                    // Unhashed URLs keep their content only until the next deploy, so clients revalidate them
+                    .setCacheControl(CacheControl.noCache().cachePublic())
+                    .setEtagGenerator(this::etag)
+                    .resourceChain(false)
+                    .addResolver(new FingerprintCacheResolver(immutable))
+                    // WebP negotiation sits ahead of the cache, whose key only covers Accept-Encoding
+                    .addResolver(new WebpResourceResolver())
+                    .addResolver(new CachingResourceResolver(new ConcurrentMapCache("static-" + directory)))
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+    
+    private String etag(Resource resource) {
+        // Fingerprinted requests already carry the version as their ETag
+        if (resource instanceof HttpResource httpResource) {
+            String versionTag = httpResource.getResponseHeaders().getETag();
+            if (versionTag != null) {
+                return versionTag;
+            }
+        }
+        return contentEtags.computeIfAbsent(resource.getDescription(), key -> {
+            try (InputStream in = resource.getInputStream()) {
+                return "\"" + DigestUtils.md5DigestAsHex(in) + "\"";
+            } catch (IOException e) {
+                return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,151 @@
+package com.trackerapp.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers an image request with its "name.png.webp" sibling when the client
+ * sends {@code Accept: image/webp}. The URL, and so its fingerprint, stays
+ * that of the original image; both representations carry {@code Vary: Accept}.
+ */
+class WebpResourceResolver extends AbstractResourceResolver {
+    
+    private static final String WEBP = "image/webp";
+    
+    // Sibling lookups hit the classpath, so remember them; assets do not change at runtime
+    private final Map<String, Optional<Resource>> siblings = new ConcurrentHashMap<>();
+    
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null || request == null) {
+            return resource;
+        }
+        
+        Optional<Resource> webp = siblings.computeIfAbsent(resource.getDescription(), key -> findSibling(resource));
+        if (webp.isEmpty()) {
+            return resource;
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        boolean acceptsWebp = accept != null && accept.contains(WEBP);
+        return acceptsWebp
+                ? new NegotiatedResource(webp.get(), resource, "-webp")
+                : new NegotiatedResource(resource, resource, "");
+    }
+    
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+    
+    private static Optional<Resource> findSibling(Resource resource) {
+        try {
+            Resource webp = resource.createRelative(resource.getFilename() + ".webp");
+            return webp.isReadable() ? Optional.of(webp) : Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+    
+    // Delegates to the chosen body but keeps the original's headers, plus Vary and a distinct ETag
+    private static final class NegotiatedResource extends AbstractResource implements HttpResource {
+        
+        private final Resource body;
+        private final Resource original;
+        private final String etagSuffix;
+        
+        NegotiatedResource(Resource body, Resource original, String etagSuffix) {
+            this.body = body;
+            this.original = original;
+            this.etagSuffix = etagSuffix;
+        }
+        
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            if (original instanceof HttpResource httpResource) {
+                headers.putAll(httpResource.getResponseHeaders());
+            }
+            String etag = headers.getETag();
+            if (etag != null && !etagSuffix.isEmpty()) {
+                headers.setETag(etag.substring(0, etag.length() - 1) + etagSuffix + "\"");
+            }
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            return headers;
+        }
+        
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return body.getInputStream();
+        }
+        
+        @Override
+        public boolean exists() {
+            return body.exists();
+        }
+        
+        @Override
+        public boolean isReadable() {
+            return body.isReadable();
+        }
+        
+        @Override
+        public URL getURL() throws IOException {
+            return body.getURL();
+        }
+        
+        @Override
+        public URI getURI() throws IOException {
+            return body.getURI();
+        }
+        
+        @Override
+        public File getFile() throws IOException {
+            return body.getFile();
+        }
+        
+        @Override
+        public long contentLength() throws IOException {
+            return body.contentLength();
+        }
+        
+        @Override
+        public long lastModified() throws IOException {
+            return body.lastModified();
+        }
+        
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return body.createRelative(relativePath);
+        }
+        
+        @Override
+        public String getFilename() {
+            // Drives the Content-Type, so it must be the body's name (".webp")
+            return body.getFilename();
+        }
+        
+        @Override
+        public String getDescription() {
+            return body.getDescription();
+        }
+    }
+}
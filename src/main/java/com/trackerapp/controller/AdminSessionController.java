@@ -0,0 +1,59 @@
+package com.trackerapp.controller;
+
+import com.trackerapp.config.AuthenticationSnapshot;
+import com.trackerapp.config.CompactSessionRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/sessions")
+public class AdminSessionController {
+    
+    private static final int MAX_USERS = 1000;
+    
+    // Absent with tracker.sessions.store=container, which cannot enumerate sessions
+    @Autowired
+    private ObjectProvider<CompactSessionRepository> sessionRepository;
+    
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> activeSessions(@RequestParam(defaultValue = "100") int limit) {
+        Map<String, Object> response = new HashMap<>();
+        CompactSessionRepository repository = sessionRepository.getIfAvailable();
+        if (repository == null) {
+            response.put("success", false);
+            response.put("message", "Session listing needs tracker.sessions.store=compact");
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(response);
+        }
+        
+        List<Map<String, Object>> users = repository.sessionsByUser(Math.max(1, Math.min(limit, MAX_USERS))).stream()
+                .map(entry -> {
+                    // Email only when the principal is already cached: listing must not fan out to the database
+                    AuthenticationSnapshot principal = repository.principalCache().getIfPresent(entry.userId());
+                    Map<String, Object> user = new LinkedHashMap<>();
+                    user.put("userId", entry.userId());
+                    user.put("email", principal != null ? principal.getEmail() : null);
+                    user.put("role", entry.role());
+                    user.put("sessions", entry.sessions());
+                    user.put("lastAccessedAt", entry.lastAccessedAt());
+                    return user;
+                })
+                .toList();
+        
+        response.put("success", true);
+        response.put("active", repository.size());
+        response.put("capacity", repository.capacity());
+        response.put("users", users);
+        return ResponseEntity.ok(response);
+    }
+}
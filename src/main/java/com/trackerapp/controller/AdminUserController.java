@@ -0,0 +1,200 @@
+package com.trackerapp.controller;
+
+import com.trackerapp.model.Role;
+import com.trackerapp.model.User;
+import com.trackerapp.repository.projection.UserSummary;
+import com.trackerapp.service.ExportCapacityExceededException;
+import com.trackerapp.service.UserExportService;
+import com.trackerapp.service.UserImportService;
+import com.trackerapp.service.UserService;
+import com.trackerapp.service.search.UserSearchIndex;
+import com.trackerapp.service.search.UserSearchResult;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin/users")
+public class AdminUserController {
+    
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    
+    @Autowired
+    private UserImportService userImportService;
+    
+    @Autowired
+    private UserExportService userExportService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> listUsers(@RequestParam(defaultValue = "0") long after,
+                                                         @RequestParam(defaultValue = "50") int size,
+                                                         @RequestParam(required = false) String department,
+                                                         @RequestParam(required = false) String role,
+                                                         @RequestParam(required = false) Boolean enabled) {
+        Map<String, Object> response = new HashMap<>();
+        Role roleFilter = null;
+        if (role != null && !role.isBlank()) {
+            try {
+                roleFilter = Role.valueOf(role.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                response.put("success", false);
+                response.put("message", "Unknown role");
+                return ResponseEntity.badRequest().body(response);
+            }
+        }
+        String departmentFilter = department != null && !department.isBlank() ? department.trim() : null;
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        
+        // One extra row tells us whether another page exists without a count query
+        List<UserSummary> users = userService.listUsers(after, departmentFilter, roleFilter, enabled, pageSize + 1);
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users = users.subList(0, pageSize);
+        }
+        
+        response.put("success", true);
+        response.put("users", users);
+        response.put("hasMore", hasMore);
+        response.put("nextCursor", hasMore ? users.get(users.size() - 1).id() : null);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Typeahead over name, email, employee ID and department; answered from memory, never with LIKE
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> search(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "10") int limit) {
+        Map<String, Object> response = new HashMap<>();
+        if (!userSearchIndex.isReady()) {
+            response.put("success", false);
+            response.put("message", "Search index is still loading");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        
+        UserSearchResult result = userSearchIndex.search(q, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        response.put("success", true);
+        response.put("users", result.hits());
+        response.put("truncated", result.truncated());
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping(value = "/import", consumes = {"text/csv", NDJSON})
+    public ResponseEntity<Map<String, Object>> importUsers(HttpServletRequest request) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        UserImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? UserImportService.Format.NDJSON
+                : UserImportService.Format.CSV;
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        
+        // Read straight from the request stream so large files are never buffered
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), charset))) {
+            return ResponseEntity.ok(userImportService.importUsers(reader, format));
+        }
+    }
+    
+    // Full extract straight from a database cursor: csv (default) or ndjson, optionally gzipped
+    @GetMapping("/export")
+    public ResponseEntity<Map<String, Object>> exportUsers(@RequestParam(defaultValue = "csv") String format,
+                                                           @RequestParam(defaultValue = "false") boolean gzip,
+                                                           HttpServletResponse response) throws IOException {
+        UserExportService.Format exportFormat;
+        try {
+            exportFormat = UserExportService.Format.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("success", false);
+            body.put("message", "Unknown format");
+            return ResponseEntity.badRequest().body(body);
+        }
+        boolean csv = exportFormat == UserExportService.Format.CSV;
+        String filename = "users-" + LocalDate.now() + (csv ? ".csv" : ".ndjson") + (gzip ? ".gz" : "");
+        
+        try {
+            // Written synchronously on the request thread: no async timeout can cut off a long extract
+            userExportService.export(exportFormat, () -> {
+                response.setContentType(gzip ? "application/gzip" : (csv ? "text/csv" : NDJSON) + ";charset=UTF-8");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString());
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+                OutputStream out = response.getOutputStream();
+                return gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+            });
+        } catch (ExportCapacityExceededException e) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("success", false);
+            body.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(body);
+        }
+        // The rows are already in the response; nothing is left for Spring MVC to write
+        return null;
+    }
+    
+    @PutMapping("/{id}/role")
+    public ResponseEntity<Map<String, Object>> updateRole(@PathVariable Long id, @RequestBody Map<String, String> body) {
+        Role role;
+        try {
+            role = Role.valueOf(String.valueOf(body.get("role")).trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Unknown role");
+            return ResponseEntity.badRequest().body(response);
+        }
+        return updated(() -> userService.updateRole(id, role));
+    }
+    
+    @PutMapping("/{id}/enabled")
+    public ResponseEntity<Map<String, Object>> updateEnabled(@PathVariable Long id, @RequestBody Map<String, Object> body) {
+        // A missing or mistyped flag must not quietly disable the account
+        if (!(body.get("enabled") instanceof Boolean enabled)) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "enabled must be true or false");
+            return ResponseEntity.badRequest().body(response);
+        }
+        return updated(() -> userService.updateEnabled(id, enabled));
+    }
+    
+    private ResponseEntity<Map<String, Object>> updated(Supplier<User> update) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            User user = update.get();
+            response.put("success", true);
+            response.put("userId", user.getId());
+            response.put("role", user.getRole());
+            response.put("enabled", user.isEnabled());
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+}
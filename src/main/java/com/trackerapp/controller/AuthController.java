@@ -1,144 +1,355 @@
 package com.trackerapp.controller;
 
+import com.trackerapp.config.AuthenticationSnapshot;
+import com.trackerapp.dto.ForgotPasswordRequest;
 import com.trackerapp.dto.LoginRequest;
 import com.trackerapp.dto.RegistrationRequest;
+import com.trackerapp.dto.ResetPasswordRequest;
 import com.trackerapp.model.User;
+import com.trackerapp.service.AuthTokenService;
+import com.trackerapp.service.HashingCapacityExceededException;
+import com.trackerapp.service.LoginThrottleService;
+import com.trackerapp.service.UserConflictException;
 import com.trackerapp.service.UserService;
+import com.trackerapp.service.UserVersionRegistry;
+import com.trackerapp.service.audit.AuditEventType;
+import com.trackerapp.service.audit.AuditLogService;
+import com.trackerapp.service.reset.PasswordResetService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
     
+    // Shared so that a rejected login allocates no response body of its own
+    private static final Map<String, Object> THROTTLED_RESPONSE = Map.of(
+        "success", false,
+        "message", "Too many login attempts, please try again later"
+    );
+    
+    // The same answer for every address, registered or not
+    private static final Map<String, Object> FORGOT_RESPONSE = Map.of(
+        "success", true,
+        "message", "If an account exists for that email, a reset link is on its way"
+    );
+    
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+    
+    @Autowired
+    private UserVersionRegistry userVersionRegistry;
+    
+    @Autowired
+    private AuthTokenService authTokenService;
+    
+    @Autowired
+    private PasswordResetService passwordResetService;
+    
+    @Autowired
+    private AuditLogService auditLog;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${tracker.hashing.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+    
     @PostMapping("/register")
-    public ResponseEntity<Map<String, Object>> register(@Valid @RequestBody RegistrationRequest request,
-                                                       BindingResult bindingResult) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> register(@Valid @RequestBody RegistrationRequest request,
+                                                                          BindingResult bindingResult,
+                                                                          HttpServletRequest servletRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         Map<String, Object> response = new HashMap<>();
+        String clientIp = servletRequest.getRemoteAddr();
         
-        try {
-            // Validate input
-            if (bindingResult.hasErrors()) {
-                response.put("success", false);
-                response.put("message", "Validation errors");
-                return ResponseEntity.badRequest().body(response);
-            }
-            
-            // Check password confirmation
-            if (!request.getPassword().equals(request.getConfirmPassword())) {
-                response.put("success", false);
-                response.put("message", "Passwords do not match");
-                return ResponseEntity.badRequest().body(response);
-            }
-            
-            // Create user object
-            User user = new User();
-            user.setFullName(request.getFullName());
-            user.setEmail(request.getEmail());
-            user.setPassword(request.getPassword());
-            user.setDepartment(request.getDepartment());
-            user.setEmpId(request.getEmpId());
-            user.setMobileNo(request.getMobileNo());
-            
-            // Register user
-            User savedUser = userService.registerUser(user);
-            
-            response.put("success", true);
-            response.put("message", "User registered successfully");
-            response.put("userId", savedUser.getId());
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (RuntimeException e) {
+        // Validate input
+        if (bindingResult.hasErrors()) {
+            auditLog.record(AuditEventType.REGISTER_FAILURE, AuditLogService.UNKNOWN_USER, request.getEmail(), clientIp);
             response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.badRequest().body(response);
+            response.put("message", "Validation errors");
+            return CompletableFuture.completedFuture(
+                    record(sample, "register", "validation", ResponseEntity.badRequest().body(response)));
         }
+        
+        // Check password confirmation
+        if (!request.getPassword().equals(request.getConfirmPassword())) {
+            auditLog.record(AuditEventType.REGISTER_FAILURE, AuditLogService.UNKNOWN_USER, request.getEmail(), clientIp);
+            response.put("success", false);
+            response.put("message", "Passwords do not match");
+            return CompletableFuture.completedFuture(
+                    record(sample, "register", "validation", ResponseEntity.badRequest().body(response)));
+        }
+        
+        // Create user object
+        User user = new User();
+        user.setFullName(request.getFullName());
+        user.setEmail(request.getEmail());
+        user.setPassword(request.getPassword());
+        user.setDepartment(request.getDepartment());
+        user.setEmpId(request.getEmpId());
+        user.setMobileNo(request.getMobileNo());
+        
+        // Register user; hashing happens off the servlet thread
+        return userService.registerUser(user)
+                .thenApply(savedUser -> {
+                    auditLog.record(AuditEventType.REGISTER_SUCCESS, savedUser.getId(), savedUser.getEmail(), clientIp);
+                    response.put("success", true);
+                    response.put("message", "User registered successfully");
+                    response.put("userId", savedUser.getId());
+                    
+                    return record(sample, "register", "success", ResponseEntity.ok(response));
+                })
+                .exceptionally(ex -> {
+                    auditLog.record(AuditEventType.REGISTER_FAILURE, AuditLogService.UNKNOWN_USER, request.getEmail(), clientIp);
+                    return failure(sample, "register", response, ex, "");
+                });
     }
     
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@Valid @RequestBody LoginRequest request,
-                                                    BindingResult bindingResult,
-                                                    HttpSession session) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> login(@Valid @RequestBody LoginRequest request,
+                                                                       BindingResult bindingResult,
+                                                                       HttpServletRequest servletRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         Map<String, Object> response = new HashMap<>();
+        String clientIp = servletRequest.getRemoteAddr();
         
-        try {
-            if (bindingResult.hasErrors()) {
-                response.put("success", false);
-                response.put("message", "Invalid input");
-                return ResponseEntity.badRequest().body(response);
-            }
-            
-            Optional<User> userOpt = userService.authenticateUser(request.getEmail(), request.getPassword());
-            
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                
-                // Store user in session
-                session.setAttribute("userId", user.getId());
-                session.setAttribute("userEmail", user.getEmail());
-                session.setAttribute("userRole", user.getRole().toString());
-                session.setAttribute("userName", user.getFullName());
-                
-                response.put("success", true);
-                response.put("message", "Login successful");
-                response.put("redirectUrl", "/dashboard");
-                response.put("user", Map.of(
-                    "id", user.getId(),
-                    "name", user.getFullName(),
-                    "email", user.getEmail(),
-                    "role", user.getRole().toString()
-                ));
-                
-                return ResponseEntity.ok(response);
-            } else {
-                response.put("success", false);
-                response.put("message", "Invalid email or password");
-                return ResponseEntity.badRequest().body(response);
-            }
-            
-        } catch (Exception e) {
+        if (bindingResult.hasErrors()) {
+            auditLog.record(AuditEventType.LOGIN_FAILURE, AuditLogService.UNKNOWN_USER, request.getEmail(), clientIp);
             response.put("success", false);
-            response.put("message", "Login failed: " + e.getMessage());
-            return ResponseEntity.badRequest().body(response);
+            response.put("message", "Invalid input");
+            return CompletableFuture.completedFuture(
+                    record(sample, "login", "validation", ResponseEntity.badRequest().body(response)));
+        }
+        
+        // Shed throttled attempts before any hashing or database work
+        long retryAfter = loginThrottleService.checkLogin(request.getEmail(), clientIp);
+        if (retryAfter > 0) {
+            auditLog.record(AuditEventType.LOGIN_THROTTLED, AuditLogService.UNKNOWN_USER, request.getEmail(), clientIp);
+            return CompletableFuture.completedFuture(record(sample, "login", "throttled",
+                    ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                            .body(THROTTLED_RESPONSE)));
         }
+        
+        // Resolved up front: the session cannot be created once the response is async
+        HttpSession session = authTokenService.isTokenMode() ? null : servletRequest.getSession();
+        
+        return userService.authenticateUser(request.getEmail(), request.getPassword())
+                .thenApply(userOpt -> {
+                    if (userOpt.isPresent()) {
+                        User user = userOpt.get();
+                        loginThrottleService.recordSuccess(request.getEmail());
+                        auditLog.record(AuditEventType.LOGIN_SUCCESS, user.getId(), user.getEmail(), clientIp);
+                        
+                        response.put("success", true);
+                        response.put("message", "Login successful");
+                        response.put("redirectUrl", "/dashboard");
+                        response.put("user", Map.of(
+                            "id", user.getId(),
+                            "name", user.getFullName(),
+                            "email", user.getEmail(),
+                            "role", user.getRole().toString()
+                        ));
+                        
+                        if (session == null) {
+                            // Stateless mode: hand the signed token to the browser (cookie) and API clients (body)
+                            String token = authTokenService.issue(user);
+                            response.put("token", token);
+                            return record(sample, "login", "success", ResponseEntity.ok()
+                                    .header(HttpHeaders.SET_COOKIE, authTokenService.cookie(token).toString())
+                                    .body(response));
+                        }
+                        
+                        // Store a pre-built authentication snapshot in the session
+                        session.setAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE, new AuthenticationSnapshot(
+                                user, userVersionRegistry.stampFor(user.getId(), user.getVersion())));
+                        
+                        return record(sample, "login", "success", ResponseEntity.ok(response));
+                    } else {
+                        loginThrottleService.recordFailure(request.getEmail());
+                        auditLog.record(AuditEventType.LOGIN_FAILURE, AuditLogService.UNKNOWN_USER, request.getEmail(), clientIp);
+                        response.put("success", false);
+                        response.put("message", "Invalid email or password");
+                        return record(sample, "login", "bad_credentials", ResponseEntity.badRequest().body(response));
+                    }
+                })
+                .exceptionally(ex -> {
+                    auditLog.record(AuditEventType.LOGIN_FAILURE, AuditLogService.UNKNOWN_USER, request.getEmail(), clientIp);
+                    return failure(sample, "login", response, ex, "Login failed: ");
+                });
     }
     
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, Object>> logout(HttpSession session) {
+    public ResponseEntity<Map<String, Object>> logout(HttpServletRequest servletRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         Map<String, Object> response = new HashMap<>();
         
-        session.invalidate();
-        
         response.put("success", true);
         response.put("message", "Logged out successfully");
         response.put("redirectUrl", "/");
         
-        return ResponseEntity.ok(response);
+        // Who is logging out: the session snapshot has the user id, a token only the email
+        HttpSession session = servletRequest.getSession(false);
+        Object snapshot = session != null ? session.getAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE) : null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (snapshot instanceof AuthenticationSnapshot current) {
+            auditLog.record(AuditEventType.LOGOUT, current.getUserId(), current.getEmail(), servletRequest.getRemoteAddr());
+        } else if (authentication != null && !(authentication instanceof AnonymousAuthenticationToken)) {
+            auditLog.record(AuditEventType.LOGOUT, AuditLogService.UNKNOWN_USER, authentication.getName(),
+                    servletRequest.getRemoteAddr());
+        }
+        
+        if (authTokenService.isTokenMode()) {
+            authTokenService.revoke(authTokenService.resolveToken(servletRequest));
+            return record(sample, "logout", "success", ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, authTokenService.clearedCookie().toString())
+                    .body(response));
+        }
+        
+        if (session != null) {
+            session.invalidate();
+        }
+        
+        return record(sample, "logout", "success", ResponseEntity.ok(response));
+    }
+    
+    @PostMapping("/forgot")
+    public ResponseEntity<Map<String, Object>> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request,
+                                                              BindingResult bindingResult,
+                                                              HttpServletRequest servletRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String clientIp = servletRequest.getRemoteAddr();
+        
+        if (bindingResult.hasErrors()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Invalid input");
+            return record(sample, "forgot", "validation", ResponseEntity.badRequest().body(response));
+        }
+        
+        // Reset buckets of its own: bounds emails per address without spending the owner's login budget
+        long retryAfter = loginThrottleService.checkReset(request.getEmail(), clientIp);
+        if (retryAfter > 0) {
+            auditLog.record(AuditEventType.PASSWORD_RESET_THROTTLED, AuditLogService.UNKNOWN_USER, request.getEmail(), clientIp);
+            return record(sample, "forgot", "throttled", ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body(THROTTLED_RESPONSE));
+        }
+        
+        // No lookup on this thread: the work and the answer do not depend on whether the email is registered
+        auditLog.record(AuditEventType.PASSWORD_RESET_REQUESTED, AuditLogService.UNKNOWN_USER, request.getEmail(), clientIp);
+        passwordResetService.requestReset(request.getEmail());
+        return record(sample, "forgot", "accepted", ResponseEntity.ok(FORGOT_RESPONSE));
+    }
+    
+    @PostMapping("/reset")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> resetPassword(@Valid @RequestBody ResetPasswordRequest request,
+                                                                               BindingResult bindingResult,
+                                                                               HttpServletRequest servletRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<String, Object> response = new HashMap<>();
+        String clientIp = servletRequest.getRemoteAddr();
+        
+        if (bindingResult.hasErrors()) {
+            response.put("success", false);
+            response.put("message", "Validation errors");
+            return CompletableFuture.completedFuture(
+                    record(sample, "reset", "validation", ResponseEntity.badRequest().body(response)));
+        }
+        
+        if (!request.getPassword().equals(request.getConfirmPassword())) {
+            response.put("success", false);
+            response.put("message", "Passwords do not match");
+            return CompletableFuture.completedFuture(
+                    record(sample, "reset", "validation", ResponseEntity.badRequest().body(response)));
+        }
+        
+        return passwordResetService.reset(request.getToken(), request.getPassword())
+                .thenApply(userOpt -> {
+                    if (userOpt.isEmpty()) {
+                        auditLog.record(AuditEventType.PASSWORD_RESET_FAILURE, AuditLogService.UNKNOWN_USER, null, clientIp);
+                        response.put("success", false);
+                        response.put("message", "This reset link is invalid or has expired");
+                        return record(sample, "reset", "invalid_token", ResponseEntity.badRequest().body(response));
+                    }
+                    User user = userOpt.get();
+                    // A locked-out user who just proved control of the mailbox may log in straight away
+                    loginThrottleService.recordSuccess(user.getEmail());
+                    auditLog.record(AuditEventType.PASSWORD_RESET_SUCCESS, user.getId(), user.getEmail(), clientIp);
+                    response.put("success", true);
+                    response.put("message", "Password updated, please log in");
+                    response.put("redirectUrl", "/login");
+                    return record(sample, "reset", "success", ResponseEntity.ok(response));
+                })
+                .exceptionally(ex -> {
+                    auditLog.record(AuditEventType.PASSWORD_RESET_FAILURE, AuditLogService.UNKNOWN_USER, null, clientIp);
+                    return failure(sample, "reset", response, ex, "Password reset failed: ");
+                });
     }
     
     @GetMapping("/check-email")
     public ResponseEntity<Map<String, Boolean>> checkEmail(@RequestParam String email) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         Map<String, Boolean> response = new HashMap<>();
         response.put("exists", userService.emailExists(email));
-        return ResponseEntity.ok(response);
+        return record(sample, "check-email", "success", ResponseEntity.ok(response));
     }
     
     @GetMapping("/check-empid")
     public ResponseEntity<Map<String, Boolean>> checkEmpId(@RequestParam String empId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         Map<String, Boolean> response = new HashMap<>();
         response.put("exists", userService.empIdExists(empId));
-        return ResponseEntity.ok(response);
+        return record(sample, "check-empid", "success", ResponseEntity.ok(response));
+    }
+    
+    private ResponseEntity<Map<String, Object>> failure(Timer.Sample sample, String endpoint,
+                                                        Map<String, Object> response, Throwable ex, String prefix) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        
+        response.put("success", false);
+        
+        // Hashing pool is saturated: tell the client to back off instead of queueing
+        if (cause instanceof HashingCapacityExceededException) {
+            response.put("message", cause.getMessage());
+            return record(sample, endpoint, "busy", ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(response));
+        }
+        
+        response.put("message", prefix + cause.getMessage());
+        String outcome = cause instanceof UserConflictException ? "conflict" : "error";
+        return record(sample, endpoint, outcome, ResponseEntity.badRequest().body(response));
+    }
+    
+    private <T> ResponseEntity<T> record(Timer.Sample sample, String endpoint, String outcome, ResponseEntity<T> result) {
+        sample.stop(Timer.builder("tracker.auth.requests")
+                .description("Authentication API requests by endpoint and outcome")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        return result;
     }
 }
\ No newline at end of file
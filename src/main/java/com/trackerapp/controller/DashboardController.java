@@ -0,0 +1,33 @@
+package com.trackerapp.controller;
+
+import com.trackerapp.service.UserStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+    
+    @Autowired
+    private UserStatistics userStatistics;
+    
+    // Served from in-memory counters; no query runs per request once they are loaded
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        UserStatistics.Snapshot snapshot = userStatistics.snapshot();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("total", snapshot.total());
+        response.put("enabled", snapshot.enabled());
+        response.put("disabled", snapshot.disabled());
+        response.put("byRole", snapshot.byRole());
+        response.put("byDepartment", snapshot.byDepartment());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,22 @@
+package com.trackerapp.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+
+public class ForgotPasswordRequest {
+    
+    @NotBlank(message = "Email is required")
+    @Email(message = "Invalid email format")
+    private String email;
+    
+    // Constructors
+    public ForgotPasswordRequest() {}
+    
+    public ForgotPasswordRequest(String email) {
+        this.email = email;
+    }
+    
+    // Getters and Setters
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+}
\ No newline at end of file
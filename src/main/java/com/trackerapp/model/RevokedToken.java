@@ -0,0 +1,41 @@
+package com.trackerapp.model;
+
+import jakarta.persistence.*;
+
+// A signed auth token logged out before it expired; shared by every instance in token mode
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+    
+    @Id
+    @Column(name = "token_id")
+    private Long tokenId;
+    
+    // Epoch seconds; the row can go once the token would have expired anyway
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+    
+    // Epoch millis on the revoking instance; other instances poll for rows newer than their last sync
+    @Column(name = "revoked_at", nullable = false)
+    private long revokedAt;
+    
+    public RevokedToken() {}
+    
+    public RevokedToken(Long tokenId, long expiresAt, long revokedAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+    
+    public Long getTokenId() { return tokenId; }
+    public void setTokenId(Long tokenId) { this.tokenId = tokenId; }
+    
+    public long getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(long expiresAt) { this.expiresAt = expiresAt; }
+    
+    public long getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(long revokedAt) { this.revokedAt = revokedAt; }
+}
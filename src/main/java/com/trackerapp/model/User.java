@@ -6,9 +6,21 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        // Named so that a violation can be mapped back to the field that clashed
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"),
+        @UniqueConstraint(name = User.EMP_ID_CONSTRAINT, columnNames = "emp_id")
+}, indexes = {
+        // (filter, id) so filtered directory pages seek straight to the cursor
+        @Index(name = "idx_users_department_id", columnList = "department, id"),
+        @Index(name = "idx_users_role_id", columnList = "role, id"),
+        @Index(name = "idx_users_enabled_id", columnList = "enabled, id")
+})
 public class User {
     
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    public static final String EMP_ID_CONSTRAINT = "uk_users_emp_id";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -19,7 +31,7 @@ public class User {
     
     @NotBlank(message = "Email is required")
     @Email(message = "Invalid email format")
-    @Column(name = "email", nullable = false, unique = true)
+    @Column(name = "email", nullable = false)
     private String email;
     
     @NotBlank(message = "Password is required")
@@ -32,7 +44,7 @@ public class User {
     private String department;
     
     @NotBlank(message = "Employee ID is required")
-    @Column(name = "emp_id", nullable = false, unique = true)
+    @Column(name = "emp_id", nullable = false)
     private String empId;
     
     @NotBlank(message = "Mobile number is required")
@@ -46,6 +58,11 @@ public class User {
     @Column(name = "enabled")
     private boolean enabled = true;
     
+    // Bumped on every update; cached session snapshots compare against it
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+    
     // Constructors
     public User() {}
     
@@ -88,6 +105,8 @@ public class User {
     public boolean isEnabled() { return enabled; }
     public void setEnabled(boolean enabled) { this.enabled = enabled; }
     
+    public long getVersion() { return version; }
+    
     @Override
     public String toString() {
         return "User{" +
@@ -0,0 +1,49 @@
+package com.trackerapp.model;
+
+import jakarta.persistence.*;
+
+// A user's latest role, enabled or password change; shared by every instance in token mode
+@Entity
+@Table(name = "user_version_changes", indexes = {
+        @Index(name = "idx_user_version_changes_changed_at", columnList = "changed_at"),
+        @Index(name = "idx_user_version_changes_expires_at", columnList = "expires_at")
+})
+public class UserVersionChange {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    // Tokens carrying an older version are rejected
+    @Column(name = "version", nullable = false)
+    private long version;
+    
+    // Epoch millis on the changing instance; other instances poll for rows newer than their last sync
+    @Column(name = "changed_at", nullable = false)
+    private long changedAt;
+    
+    // Epoch seconds; the row can go once every token issued before the change has expired
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+    
+    public UserVersionChange() {}
+    
+    public UserVersionChange(Long userId, long version, long changedAt, long expiresAt) {
+        this.userId = userId;
+        this.version = version;
+        this.changedAt = changedAt;
+        this.expiresAt = expiresAt;
+    }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
+    public long getChangedAt() { return changedAt; }
+    public void setChangedAt(long changedAt) { this.changedAt = changedAt; }
+    
+    public long getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(long expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,24 @@
+package com.trackerapp.repository;
+
+import com.trackerapp.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    
+    // Unexpired revocations recorded since the given time, by any instance
+    @Query("select t from RevokedToken t where t.revokedAt >= :since and t.expiresAt > :now")
+    List<RevokedToken> findRevokedSince(@Param("since") long since, @Param("now") long now);
+    
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") long now);
+}
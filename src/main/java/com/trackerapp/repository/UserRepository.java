@@ -2,10 +2,23 @@ package com.trackerapp.repository;
 
 import com.trackerapp.model.User;
 import com.trackerapp.model.Role;
+import com.trackerapp.repository.projection.UserGroupCount;
+import com.trackerapp.repository.projection.UserKeys;
+import com.trackerapp.repository.projection.UserSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -14,4 +27,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     boolean existsByEmpId(String empId);
     Optional<User> findByEmailAndRole(String email, Role role);
-}
\ No newline at end of file
+    
+    // Compare-and-set on the old hash so a concurrent password change is never overwritten.
+    // Leaves version alone: a rehash must not invalidate the user's sessions.
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+    
+    // Must be consumed inside a transaction and closed after use
+    @Query("select u.email as email, u.empId as empId from User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UserKeys> streamAllKeys();
+    
+    // Keyset page: seeks past afterId on the primary key (or a (filter, id) index), so cost is
+    // independent of how deep the page is. A null filter matches every row.
+    @Query("select new com.trackerapp.repository.projection.UserSummary("
+            + "u.id, u.fullName, u.email, u.department, u.empId, u.role, u.enabled) "
+            + "from User u "
+            + "where u.id > :afterId "
+            + "and (:department is null or u.department = :department) "
+            + "and (:role is null or u.role = :role) "
+            + "and (:enabled is null or u.enabled = :enabled) "
+            + "order by u.id")
+    List<UserSummary> findSummariesAfter(@Param("afterId") long afterId,
+                                         @Param("department") String department,
+                                         @Param("role") Role role,
+                                         @Param("enabled") Boolean enabled,
+                                         Limit limit);
+    
+    // Full-table aggregate; only run at startup and by the periodic drift check, never per request
+    @Query("select new com.trackerapp.repository.projection.UserGroupCount("
+            + "u.department, u.role, u.enabled, count(u)) "
+            + "from User u "
+            + "group by u.department, u.role, u.enabled")
+    List<UserGroupCount> countByDepartmentRoleEnabled();
+}
@@ -0,0 +1,24 @@
+package com.trackerapp.repository;
+
+import com.trackerapp.model.UserVersionChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface UserVersionChangeRepository extends JpaRepository<UserVersionChange, Long> {
+    
+    // Changes recorded since the given time, by any instance, that older tokens could still be affected by
+    @Query("select c from UserVersionChange c where c.changedAt >= :since and c.expiresAt > :now")
+    List<UserVersionChange> findChangedSince(@Param("since") long since, @Param("now") long now);
+    
+    @Modifying
+    @Transactional
+    @Query("delete from UserVersionChange c where c.expiresAt <= :now")
+    int deleteExpired(@Param("now") long now);
+}
@@ -0,0 +1,8 @@
+package com.trackerapp.repository.projection;
+
+import com.trackerapp.model.Role;
+
+// HR extract row: the directory fields plus mobile number; never the password hash
+public record UserExportRow(Long id, String fullName, String email, String department,
+                            String empId, String mobileNo, Role role, boolean enabled) {
+}
@@ -0,0 +1,7 @@
+package com.trackerapp.repository.projection;
+
+import com.trackerapp.model.Role;
+
+// One GROUP BY cell of the users table, used to seed and check the dashboard counters
+public record UserGroupCount(String department, Role role, boolean enabled, long count) {
+}
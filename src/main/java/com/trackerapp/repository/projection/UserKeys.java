@@ -0,0 +1,6 @@
+package com.trackerapp.repository.projection;
+
+public interface UserKeys {
+    String getEmail();
+    String getEmpId();
+}
@@ -0,0 +1,8 @@
+package com.trackerapp.repository.projection;
+
+import com.trackerapp.model.Role;
+
+// Directory listing row; deliberately excludes the password hash
+public record UserSummary(Long id, String fullName, String email, String department,
+                          String empId, Role role, boolean enabled) {
+}
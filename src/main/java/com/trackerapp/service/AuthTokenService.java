@@ -0,0 +1,364 @@
+package com.trackerapp.service;
+
+import com.trackerapp.config.AuthenticationSnapshot;
+import com.trackerapp.model.RevokedToken;
+import com.trackerapp.model.Role;
+import com.trackerapp.model.User;
+import com.trackerapp.model.UserVersionChange;
+import com.trackerapp.repository.RevokedTokenRepository;
+import com.trackerapp.repository.UserVersionChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and verifies HMAC-signed login tokens for the stateless auth mode
+ * ({@code tracker.auth.mode=token}). A token carries everything the filter
+ * needs to authenticate a request, so any instance can serve any user
+ * without sticky sessions or session replication.
+ *
+ * <p>Format: {@code <keyId>.<payload>.<signature>}, base64url without
+ * padding, signed with HMAC-SHA256 over {@code <keyId>.<payload>}. The first
+ * configured key signs; all configured keys verify, which allows rotation.
+ *
+ * <p>What a token cannot carry is checked against shared state without a
+ * database read per request: logouts in the {@code revoked_tokens} table
+ * are polled into a local set, and role, enabled and password changes in
+ * the {@code user_version_changes} table into {@link UserVersionRegistry}.
+ */
+@Service
+public class AuthTokenService {
+
+    public static final String MODE_TOKEN = "token";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final byte FORMAT_VERSION = 1;
+    // format, userId, version, role, expiresAt, tokenId
+    private static final int FIXED_PAYLOAD_BYTES = 1 + 8 + 8 + 1 + 8 + 8;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final Role[] ROLES = Role.values();
+    // Each poll re-reads this far back, covering commits that landed late and clock skew between instances
+    private static final long SYNC_OVERLAP_MILLIS = 60_000;
+
+    @Autowired
+    private UserVersionRegistry userVersionRegistry;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserVersionChangeRepository userVersionChangeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tracker.auth.mode:session}")
+    private String mode;
+
+    // Comma-separated keyId:base64Secret pairs; the first one signs new tokens
+    @Value("${tracker.auth.token.keys:}")
+    private String keys;
+
+    @Value("${tracker.auth.token.ttl-minutes:480}")
+    private long ttlMinutes;
+
+    @Value("${tracker.auth.token.cookie-name:TRACKER_AUTH}")
+    private String cookieName;
+
+    @Value("${tracker.auth.token.cookie-secure:false}")
+    private boolean cookieSecure;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // Verification keys by id; Mac instances are cloned from these per call
+    private final Map<String, Mac> verifiers = new LinkedHashMap<>();
+    private String signingKeyId;
+
+    // Token id -> expiry (epoch seconds) for tokens logged out before they expire, on any instance
+    private final Map<Long, Long> revoked = new ConcurrentHashMap<>();
+    // Start of the last successful poll of revoked_tokens; 0 until the first one has loaded everything
+    private long lastSyncMillis;
+
+    private boolean tokenMode;
+
+    private Counter rejectedMalformed;
+    private Counter rejectedSignature;
+    private Counter rejectedExpired;
+    private Counter rejectedRevoked;
+    private Counter rejectedStale;
+
+    @PostConstruct
+    public void init() throws GeneralSecurityException {
+        tokenMode = MODE_TOKEN.equalsIgnoreCase(mode.trim());
+        if (!tokenMode) {
+            return;
+        }
+
+        for (String entry : keys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalStateException("tracker.auth.token.keys entries must be keyId:base64Secret");
+            }
+            String keyId = entry.substring(0, colon).trim();
+            byte[] secret = Base64.getDecoder().decode(entry.substring(colon + 1).trim());
+            if (secret.length < 32) {
+                throw new IllegalStateException("Token key '" + keyId + "' must be at least 256 bits");
+            }
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            verifiers.put(keyId, mac);
+            if (signingKeyId == null) {
+                signingKeyId = keyId;
+            }
+        }
+        if (signingKeyId == null) {
+            throw new IllegalStateException("tracker.auth.mode=token requires tracker.auth.token.keys");
+        }
+
+        rejectedMalformed = rejectedCounter("malformed");
+        rejectedSignature = rejectedCounter("signature");
+        rejectedExpired = rejectedCounter("expired");
+        rejectedRevoked = rejectedCounter("revoked");
+        rejectedStale = rejectedCounter("stale");
+    }
+
+    public boolean isTokenMode() {
+        return tokenMode;
+    }
+
+    public String issue(User user) {
+        byte[] email = user.getEmail().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(FIXED_PAYLOAD_BYTES + email.length)
+                .put(FORMAT_VERSION)
+                .putLong(user.getId())
+                .putLong(user.getVersion())
+                .put((byte) user.getRole().ordinal())
+                .putLong(nowSeconds() + TimeUnit.MINUTES.toSeconds(ttlMinutes))
+                .putLong(random.nextLong())
+                .put(email);
+
+        String signed = signingKeyId + "." + ENCODER.encodeToString(payload.array());
+        return signed + "." + ENCODER.encodeToString(sign(verifiers.get(signingKeyId), signed));
+    }
+
+    // Returns the authentication carried by a valid token, otherwise null
+    public Authentication verify(String token) {
+        ByteBuffer payload = verifiedPayload(token);
+        if (payload == null) {
+            return null;
+        }
+
+        long userId = payload.getLong();
+        long version = payload.getLong();
+        int role = payload.get();
+        long expiresAt = payload.getLong();
+        long tokenId = payload.getLong();
+
+        if (expiresAt <= nowSeconds()) {
+            rejectedExpired.increment();
+            return null;
+        }
+        if (!revoked.isEmpty() && revoked.containsKey(tokenId)) {
+            rejectedRevoked.increment();
+            return null;
+        }
+        // Role, enabled flag or password changed since the token was issued, here or on an instance we have polled
+        if (!userVersionRegistry.isCurrent(userId, version)) {
+            rejectedStale.increment();
+            return null;
+        }
+        if (role < 0 || role >= ROLES.length) {
+            rejectedMalformed.increment();
+            return null;
+        }
+
+        String email = new String(payload.array(), payload.position(), payload.remaining(), StandardCharsets.UTF_8);
+        return UsernamePasswordAuthenticationToken.authenticated(
+                email, null, AuthenticationSnapshot.authoritiesFor(ROLES[role]));
+    }
+
+    public void revoke(String token) {
+        ByteBuffer payload = verifiedPayload(token);
+        if (payload == null) {
+            return;
+        }
+        payload.position(1 + 8 + 8 + 1);
+        long expiresAt = payload.getLong();
+        long tokenId = payload.getLong();
+        if (expiresAt > nowSeconds()) {
+            revoked.put(tokenId, expiresAt);
+            // Other instances pick it up on their next poll
+            revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt, System.currentTimeMillis()));
+        }
+    }
+
+    // Call after the change is committed; the new version rejects the user's older tokens on every instance
+    public void userChanged(Long userId, long newVersion) {
+        if (!tokenMode) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = TimeUnit.MILLISECONDS.toSeconds(now) + TimeUnit.MINUTES.toSeconds(ttlMinutes);
+        userVersionChangeRepository.save(new UserVersionChange(userId, newVersion, now, expiresAt));
+    }
+
+    // Loads logouts and user changes recorded by other instances; the first run after startup loads every unexpired one
+    @Scheduled(fixedDelayString = "${tracker.auth.token.revocation-sync-ms:5000}")
+    public void syncRevoked() {
+        if (!tokenMode) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long since = lastSyncMillis == 0 ? 0 : lastSyncMillis - SYNC_OVERLAP_MILLIS;
+        for (RevokedToken token : revokedTokenRepository.findRevokedSince(since, nowSeconds())) {
+            revoked.put(token.getTokenId(), token.getExpiresAt());
+        }
+        for (UserVersionChange change : userVersionChangeRepository.findChangedSince(since, nowSeconds())) {
+            userVersionRegistry.bump(change.getUserId(), change.getVersion());
+        }
+        lastSyncMillis = started;
+    }
+
+    // Entries only need to outlive the token they revoke
+    @Scheduled(fixedDelayString = "${tracker.auth.token.revocation-purge-ms:60000}")
+    public void purgeRevoked() {
+        if (!tokenMode) {
+            return;
+        }
+        long now = nowSeconds();
+        if (!revoked.isEmpty()) {
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        }
+        // Every instance runs this; deleting rows that are already gone is harmless
+        revokedTokenRepository.deleteExpired(now);
+        userVersionChangeRepository.deleteExpired(now);
+    }
+
+    public int revokedCount() {
+        return revoked.size();
+    }
+
+    // Token from the auth cookie, or from an "Authorization: Bearer" header for API clients
+    public String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length());
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (cookieName.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    public ResponseCookie cookie(String token) {
+        return baseCookie(token).maxAge(Duration.ofMinutes(ttlMinutes)).build();
+    }
+
+    public ResponseCookie clearedCookie() {
+        return baseCookie("").maxAge(0).build();
+    }
+
+    private ResponseCookie.ResponseCookieBuilder baseCookie(String value) {
+        return ResponseCookie.from(cookieName, value)
+                .httpOnly(true)
+                .secure(cookieSecure)
+                .sameSite("Lax")
+                .path("/");
+    }
+
+    // Checks the signature and returns the payload positioned after the format byte
+    private ByteBuffer verifiedPayload(String token) {
+        if (token == null) {
+            return null;
+        }
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot <= firstDot) {
+            rejectedMalformed.increment();
+            return null;
+        }
+
+        Mac verifier = verifiers.get(token.substring(0, firstDot));
+        if (verifier == null) {
+            // Signed with a key that has been rotated out
+            rejectedSignature.increment();
+            return null;
+        }
+
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(firstDot + 1, lastDot));
+            signature = DECODER.decode(token.substring(lastDot + 1));
+        } catch (IllegalArgumentException e) {
+            rejectedMalformed.increment();
+            return null;
+        }
+
+        if (!MessageDigest.isEqual(signature, sign(verifier, token.substring(0, lastDot)))) {
+            rejectedSignature.increment();
+            return null;
+        }
+        if (payload.length <= FIXED_PAYLOAD_BYTES || payload[0] != FORMAT_VERSION) {
+            rejectedMalformed.increment();
+            return null;
+        }
+        return ByteBuffer.wrap(payload).position(1);
+    }
+
+    private static byte[] sign(Mac prototype, String signed) {
+        try {
+            // Mac is not thread-safe; cloning an initialised one skips provider lookup and key setup
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(signed.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC provider does not support cloning", e);
+        }
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("tracker.auth.token.rejected")
+                .description("Auth tokens rejected by the filter")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
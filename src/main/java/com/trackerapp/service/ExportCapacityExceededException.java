@@ -0,0 +1,8 @@
+package com.trackerapp.service;
+
+public class ExportCapacityExceededException extends RuntimeException {
+    
+    public ExportCapacityExceededException() {
+        super("An export is already running, please try again later");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.trackerapp.service;
+
+public class HashingCapacityExceededException extends RuntimeException {
+    
+    public HashingCapacityExceededException() {
+        super("Server is busy, please try again shortly");
+    }
+}
\ No newline at end of file
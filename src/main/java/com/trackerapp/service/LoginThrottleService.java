@@ -0,0 +1,173 @@
+package com.trackerapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-email and per-IP rate limiting in front of password verification.
+ * A rejected attempt costs a hash of the key and one striped-lock table
+ * probe: no BCrypt work, no database access and no allocation.
+ *
+ * Password reset requests have buckets of their own, so flooding
+ * {@code /forgot} for an address cannot lock its owner out of logging in.
+ */
+@Service
+public class LoginThrottleService {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${tracker.throttle.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${tracker.throttle.table-size:65536}")
+    private int tableSize;
+    
+    @Value("${tracker.throttle.idle-minutes:30}")
+    private long idleMinutes;
+    
+    @Value("${tracker.throttle.email.burst:5}")
+    private int emailBurst;
+    
+    @Value("${tracker.throttle.email.per-minute:5}")
+    private int emailPerMinute;
+    
+    @Value("${tracker.throttle.ip.burst:30}")
+    private int ipBurst;
+    
+    @Value("${tracker.throttle.ip.per-minute:60}")
+    private int ipPerMinute;
+    
+    @Value("${tracker.throttle.lockout.threshold:5}")
+    private int lockoutThreshold;
+    
+    @Value("${tracker.throttle.lockout.base-seconds:30}")
+    private long lockoutBaseSeconds;
+    
+    @Value("${tracker.throttle.lockout.max-seconds:3600}")
+    private long lockoutMaxSeconds;
+    
+    @Value("${tracker.throttle.reset.email.burst:3}")
+    private int resetEmailBurst;
+    
+    @Value("${tracker.throttle.reset.email.per-minute:1}")
+    private int resetEmailPerMinute;
+    
+    @Value("${tracker.throttle.reset.ip.burst:10}")
+    private int resetIpBurst;
+    
+    @Value("${tracker.throttle.reset.ip.per-minute:10}")
+    private int resetIpPerMinute;
+    
+    private TokenBucketTable emailBuckets;
+    private TokenBucketTable ipBuckets;
+    private TokenBucketTable resetEmailBuckets;
+    private TokenBucketTable resetIpBuckets;
+    
+    private Counter shedByLockout;
+    private Counter shedByEmail;
+    private Counter shedByIp;
+    private Counter resetShedByEmail;
+    private Counter resetShedByIp;
+    
+    @PostConstruct
+    public void init() {
+        long idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+        emailBuckets = new TokenBucketTable(tableSize, emailBurst, emailPerMinute, idleNanos);
+        ipBuckets = new TokenBucketTable(tableSize, ipBurst, ipPerMinute, idleNanos);
+        resetEmailBuckets = new TokenBucketTable(tableSize, resetEmailBurst, resetEmailPerMinute, idleNanos);
+        resetIpBuckets = new TokenBucketTable(tableSize, resetIpBurst, resetIpPerMinute, idleNanos);
+        
+        shedByLockout = shedCounter("lockout");
+        shedByEmail = shedCounter("email");
+        shedByIp = shedCounter("ip");
+        resetShedByEmail = resetShedCounter("email");
+        resetShedByIp = resetShedCounter("ip");
+    }
+    
+    // Returns 0 if the attempt may proceed, otherwise the seconds to wait
+    public long checkLogin(String email, String ipAddress) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long emailKey = TokenBucketTable.fingerprint(email, true);
+        
+        long wait = emailBuckets.lockoutRemaining(emailKey, now);
+        if (wait > 0) {
+            shedByLockout.increment();
+            return toSeconds(wait);
+        }
+        
+        wait = ipBuckets.tryAcquire(TokenBucketTable.fingerprint(ipAddress, false), now);
+        if (wait > 0) {
+            shedByIp.increment();
+            return toSeconds(wait);
+        }
+        
+        wait = emailBuckets.tryAcquire(emailKey, now);
+        if (wait > 0) {
+            shedByEmail.increment();
+            return toSeconds(wait);
+        }
+        return 0;
+    }
+    
+    // Same contract as checkLogin; ignores login lockouts and spends no login tokens
+    public long checkReset(String email, String ipAddress) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long wait = resetIpBuckets.tryAcquire(TokenBucketTable.fingerprint(ipAddress, false), now);
+        if (wait > 0) {
+            resetShedByIp.increment();
+            return toSeconds(wait);
+        }
+        
+        wait = resetEmailBuckets.tryAcquire(TokenBucketTable.fingerprint(email, true), now);
+        if (wait > 0) {
+            resetShedByEmail.increment();
+            return toSeconds(wait);
+        }
+        return 0;
+    }
+    
+    public void recordFailure(String email) {
+        if (enabled) {
+            emailBuckets.recordFailure(TokenBucketTable.fingerprint(email, true), System.nanoTime(),
+                    lockoutThreshold, TimeUnit.SECONDS.toNanos(lockoutBaseSeconds),
+                    TimeUnit.SECONDS.toNanos(lockoutMaxSeconds));
+        }
+    }
+    
+    public void recordSuccess(String email) {
+        if (enabled) {
+            emailBuckets.reset(TokenBucketTable.fingerprint(email, true), System.nanoTime());
+        }
+    }
+    
+    private Counter shedCounter(String reason) {
+        return Counter.builder("tracker.throttle.shed")
+                .description("Login attempts rejected before password verification")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+    
+    private Counter resetShedCounter(String reason) {
+        return Counter.builder("tracker.throttle.reset.shed")
+                .description("Password reset requests rejected by the throttle")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+    
+    private static long toSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.trackerapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt work on a dedicated, bounded pool so that hashing can never
+ * occupy the servlet threads that serve cheap requests. Callers' follow-up
+ * work (JDBC, response building) runs on a separate continuation executor,
+ * so a slow database never holds a hashing thread.
+ */
+@Service
+public class PasswordHashingService {
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // 0 means one thread per available core
+    @Value("${tracker.hashing.threads:0}")
+    private int threads;
+    
+    @Value("${tracker.hashing.queue-capacity:64}")
+    private int queueCapacity;
+    
+    // Continuations mostly wait on JDBC, so more threads than connections would only queue in the pool
+    @Value("${tracker.hashing.continuation-threads:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int continuationThreads;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    private ThreadPoolExecutor executor;
+    private ExecutorService continuationExecutor;
+    private Timer queueWaitTimer;
+    private Timer hashTimer;
+    
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        
+        // Unbounded queue: its inflow is already bounded by the hashing pool, and a rejected continuation would fail the caller
+        continuationExecutor = virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(continuationThreads, new NamedThreadFactory("password-continuation-"));
+        
+        queueWaitTimer = Timer.builder("tracker.hashing.queue.wait")
+                .description("Time a hashing task waits for a hashing thread")
+                .register(meterRegistry);
+        hashTimer = Timer.builder("tracker.hashing.hash")
+                .description("Time spent inside the password encoder")
+                .register(meterRegistry);
+        Gauge.builder("tracker.hashing.queue.size", executor, e -> e.getQueue().size())
+                .description("Hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("tracker.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently busy")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        continuationExecutor.shutdown();
+    }
+    
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+    
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+    
+    // For optional work such as rehashing: declined while the queue is half full so logins keep priority
+    public CompletableFuture<String> encodeWhenIdle(CharSequence rawPassword) {
+        if (executor.getQueue().size() >= queueCapacity / 2) {
+            return CompletableFuture.failedFuture(new HashingCapacityExceededException());
+        }
+        return encode(rawPassword);
+    }
+    
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+    
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    result.complete(work.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue is full: fail fast instead of piling more work onto the pool
+            result.completeExceptionally(new HashingCapacityExceededException());
+        }
+        
+        return result.thenApplyAsync(value -> value, continuationExecutor);
+    }
+    
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+        private final String prefix;
+        
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
\ No newline at end of file
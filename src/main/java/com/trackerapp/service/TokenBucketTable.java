@@ -0,0 +1,216 @@
+package com.trackerapp.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size, set-associative table of token buckets keyed by a 64-bit hash
+ * of the key. All state lives in primitive arrays allocated up front, so
+ * lookups never allocate and memory is bounded by the table size. Sets are
+ * guarded by striped locks; idle entries are reused, and when a set is full
+ * the least recently seen entry is evicted.
+ */
+class TokenBucketTable {
+    
+    private static final int WAYS = 4;
+    private static final long MICROS_PER_TOKEN = 1_000_000L;
+    
+    private final int setMask;
+    private final int stripeMask;
+    private final ReentrantLock[] stripes;
+    
+    private final long[] fingerprints;
+    private final long[] tokens;
+    private final long[] lastRefill;
+    private final long[] lastSeen;
+    private final int[] failures;
+    private final long[] lockedUntil;
+    
+    private final long burstMicros;
+    private final long nanosPerToken;
+    private final long idleNanos;
+    
+    TokenBucketTable(int capacity, int burst, int tokensPerMinute, long idleNanos) {
+        int sets = Integer.highestOneBit(Math.max(capacity / WAYS, 1));
+        int slots = sets * WAYS;
+        int stripeCount = Math.min(sets, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 16));
+        
+        this.setMask = sets - 1;
+        this.stripeMask = stripeCount - 1;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        
+        this.fingerprints = new long[slots];
+        this.tokens = new long[slots];
+        this.lastRefill = new long[slots];
+        this.lastSeen = new long[slots];
+        this.failures = new int[slots];
+        this.lockedUntil = new long[slots];
+        
+        this.burstMicros = burst * MICROS_PER_TOKEN;
+        this.nanosPerToken = TimeUnit.MINUTES.toNanos(1) / Math.max(tokensPerMinute, 1);
+        this.idleNanos = idleNanos;
+    }
+    
+    // Returns 0 when the key still has a token, otherwise nanos until the next one
+    long tryAcquire(long fingerprint, long now) {
+        ReentrantLock lock = lockFor(fingerprint);
+        lock.lock();
+        try {
+            int slot = slotFor(fingerprint, now);
+            refill(slot, now);
+            if (tokens[slot] >= MICROS_PER_TOKEN) {
+                tokens[slot] -= MICROS_PER_TOKEN;
+                return 0;
+            }
+            long missing = MICROS_PER_TOKEN - tokens[slot];
+            return Math.max(1, missing * nanosPerToken / MICROS_PER_TOKEN);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Returns 0 when the key is not locked out, otherwise nanos until the lockout ends
+    long lockoutRemaining(long fingerprint, long now) {
+        ReentrantLock lock = lockFor(fingerprint);
+        lock.lock();
+        try {
+            int slot = find(fingerprint, now);
+            if (slot < 0 || lockedUntil[slot] == 0) {
+                return 0;
+            }
+            long remaining = lockedUntil[slot] - now;
+            return remaining > 0 ? remaining : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Counts a failed attempt; from the threshold on, each failure doubles the lockout
+    void recordFailure(long fingerprint, long now, int threshold, long baseLockoutNanos, long maxLockoutNanos) {
+        ReentrantLock lock = lockFor(fingerprint);
+        lock.lock();
+        try {
+            int slot = slotFor(fingerprint, now);
+            int count = ++failures[slot];
+            if (count >= threshold) {
+                int doublings = Math.min(count - threshold, 30);
+                long lockout = Math.min(baseLockoutNanos << doublings, maxLockoutNanos);
+                if (lockout < 0) {
+                    lockout = maxLockoutNanos;
+                }
+                // 0 means "not locked", so nudge an exact-zero deadline
+                long until = now + lockout;
+                lockedUntil[slot] = until == 0 ? 1 : until;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void reset(long fingerprint, long now) {
+        ReentrantLock lock = lockFor(fingerprint);
+        lock.lock();
+        try {
+            int slot = find(fingerprint, now);
+            if (slot >= 0) {
+                failures[slot] = 0;
+                lockedUntil[slot] = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private ReentrantLock lockFor(long fingerprint) {
+        return stripes[setIndex(fingerprint) & stripeMask];
+    }
+    
+    private int setIndex(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & setMask;
+    }
+    
+    // Existing live slot for the key, or -1
+    private int find(long fingerprint, long now) {
+        int base = setIndex(fingerprint) * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            if (fingerprints[i] == fingerprint && !isIdle(i, now)) {
+                lastSeen[i] = now;
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    // Existing slot for the key, or a recycled one initialised with a full bucket
+    private int slotFor(long fingerprint, long now) {
+        int existing = find(fingerprint, now);
+        if (existing >= 0) {
+            return existing;
+        }
+        
+        int base = setIndex(fingerprint) * WAYS;
+        int victim = base;
+        for (int i = base; i < base + WAYS; i++) {
+            if (fingerprints[i] == 0 || isIdle(i, now)) {
+                victim = i;
+                break;
+            }
+            if (lastSeen[i] - lastSeen[victim] < 0) {
+                victim = i;
+            }
+        }
+        
+        fingerprints[victim] = fingerprint;
+        tokens[victim] = burstMicros;
+        lastRefill[victim] = now;
+        lastSeen[victim] = now;
+        failures[victim] = 0;
+        lockedUntil[victim] = 0;
+        return victim;
+    }
+    
+    private boolean isIdle(int slot, long now) {
+        // A running lockout keeps the entry alive even when the key goes quiet
+        return now - lastSeen[slot] > idleNanos && (lockedUntil[slot] == 0 || now - lockedUntil[slot] > 0);
+    }
+    
+    private void refill(int slot, long now) {
+        long elapsed = now - lastRefill[slot];
+        if (elapsed <= 0) {
+            return;
+        }
+        if (elapsed >= nanosPerToken * (burstMicros / MICROS_PER_TOKEN)) {
+            tokens[slot] = burstMicros;
+            lastRefill[slot] = now;
+            return;
+        }
+        long earned = elapsed * MICROS_PER_TOKEN / nanosPerToken;
+        if (earned > 0) {
+            tokens[slot] = Math.min(burstMicros, tokens[slot] + earned);
+            lastRefill[slot] = now;
+        }
+    }
+    
+    // FNV-1a over the characters, optionally case-folded, followed by a 64-bit finalizer
+    static long fingerprint(CharSequence key, boolean ignoreCase) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (ignoreCase) {
+                c = Character.toLowerCase(c);
+            }
+            hash ^= c;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        // Zero marks an empty slot
+        return hash == 0 ? 1 : hash;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,176 @@
+package com.trackerapp.service;
+
+import com.trackerapp.repository.UserRepository;
+import com.trackerapp.repository.projection.UserKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process set of every taken email and employee ID, so the registration
+ * page's availability checks are answered without a database round trip.
+ * Until the first warm-up completes, lookups fall through to the database.
+ *
+ * Keys are folded to lower case, as MySQL's default case-insensitive
+ * collation compares the {@code uk_users_*} columns: "emp001" is taken when
+ * "EMP001" is. The collation also ignores accents; a key that differs only
+ * in accents passes this check and is still refused by the constraint.
+ */
+@Service
+public class UserAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityIndex.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile Keys keys = new Keys();
+
+    // Non-null while a rebuild is scanning the table; new keys go to both sets
+    private volatile Keys building;
+
+    private volatile boolean ready;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final AtomicBoolean warmUpStarted = new AtomicBoolean();
+
+    private Counter emailHits;
+    private Counter emailMisses;
+    private Counter empIdHits;
+    private Counter empIdMisses;
+
+    @PostConstruct
+    public void init() {
+        emailHits = lookupCounter("email", "hit");
+        emailMisses = lookupCounter("email", "miss");
+        empIdHits = lookupCounter("empId", "hit");
+        empIdMisses = lookupCounter("empId", "miss");
+        Gauge.builder("tracker.availability.size", this, index -> index.keys.emails.size())
+                .description("Users tracked by the availability index")
+                .register(meterRegistry);
+    }
+
+    // Lookups fall back to the database until the scan completes, so readiness does not wait for it
+    @EventListener
+    public void warmUp(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && warmUpStarted.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("availability-warmup").start(() -> {
+                rebuild();
+                ready = true;
+            });
+        }
+    }
+
+    // Picks up rows written outside this instance (other nodes, manual SQL, deletes)
+    @Scheduled(initialDelayString = "${tracker.availability.reconcile-interval-ms:600000}",
+               fixedDelayString = "${tracker.availability.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        if (ready) {
+            rebuild();
+        }
+    }
+
+    public boolean emailExists(String email) {
+        if (!ready) {
+            emailMisses.increment();
+            return userRepository.existsByEmail(email);
+        }
+        emailHits.increment();
+        return keys.emails.contains(fold(email));
+    }
+
+    public boolean empIdExists(String empId) {
+        if (!ready) {
+            empIdMisses.increment();
+            return userRepository.existsByEmpId(empId);
+        }
+        empIdHits.increment();
+        return keys.empIds.contains(fold(empId));
+    }
+
+    // Call only after the user row has been committed
+    public void add(String email, String empId) {
+        Keys pending = building;
+        keys.add(email, empId);
+        if (pending != null) {
+            pending.add(email, empId);
+        }
+    }
+
+    // The form keys are compared in, here and wherever else duplicates are checked before insert
+    static String fold(String key) {
+        return key == null ? null : key.toLowerCase(Locale.ROOT);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void rebuild() {
+        // A lock rather than synchronized: the scan blocks on JDBC and may run on a virtual thread
+        rebuildLock.lock();
+        long start = System.currentTimeMillis();
+        Keys fresh = new Keys();
+        building = fresh;
+
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<UserKeys> rows = userRepository.streamAllKeys()) {
+                    rows.forEach(row -> fresh.add(row.getEmail(), row.getEmpId()));
+                }
+            });
+            keys = fresh;
+        } finally {
+            building = null;
+            rebuildLock.unlock();
+        }
+
+        log.info("Availability index rebuilt with {} users in {} ms",
+                fresh.emails.size(), System.currentTimeMillis() - start);
+    }
+
+    private Counter lookupCounter(String key, String outcome) {
+        return Counter.builder("tracker.availability.lookups")
+                .description("Availability checks answered from the index (hit) or the database (miss)")
+                .tag("key", key)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class Keys {
+        final Set<String> emails = ConcurrentHashMap.newKeySet();
+        final Set<String> empIds = ConcurrentHashMap.newKeySet();
+
+        void add(String email, String empId) {
+            emails.add(fold(email));
+            empIds.add(fold(empId));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.trackerapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trackerapp.model.User;
+import com.trackerapp.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of {@link User} rows by id, email and employee ID,
+ * bounded in size and expiring after a short TTL. Every write path in
+ * {@link UserService} evicts the user it changed. The TTL bounds how long
+ * another instance's write can go unnoticed here.
+ *
+ * Cached users are shared between callers and must not be modified; write
+ * paths load their own copy from the repository.
+ */
+@Service
+public class UserCache {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${tracker.users.cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${tracker.users.cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${tracker.users.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+    
+    private Cache<Long, User> byId;
+    private Cache<String, User> byEmail;
+    private Cache<String, User> byEmpId;
+    
+    // Bumped by every eviction; lets a load that raced with a write detect it
+    private final AtomicLong evictions = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        byId = newCache("users.byId");
+        byEmail = newCache("users.byEmail");
+        byEmpId = newCache("users.byEmpId");
+    }
+    
+    public Optional<User> findById(Long id) {
+        return lookup(byId.getIfPresent(id), () -> userRepository.findById(id));
+    }
+    
+    public Optional<User> findByEmail(String email) {
+        return lookup(byEmail.getIfPresent(email), () -> userRepository.findByEmail(email));
+    }
+    
+    public Optional<User> findByEmpId(String empId) {
+        return lookup(byEmpId.getIfPresent(empId), () -> userRepository.findByEmpId(empId));
+    }
+    
+    // Call after the change is committed
+    public void evict(User user) {
+        evictions.incrementAndGet();
+        byId.invalidate(user.getId());
+        byEmail.invalidate(user.getEmail());
+        byEmpId.invalidate(user.getEmpId());
+    }
+    
+    public void evictAll() {
+        evictions.incrementAndGet();
+        byId.invalidateAll();
+        byEmail.invalidateAll();
+        byEmpId.invalidateAll();
+    }
+    
+    private Optional<User> lookup(User cached, Supplier<Optional<User>> loader) {
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (!enabled) {
+            return loader.get();
+        }
+        
+        // Loaded outside any cache lock, so JDBC never blocks other keys or pins a virtual thread
+        long before = evictions.get();
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(user -> {
+            byId.put(user.getId(), user);
+            byEmail.put(user.getEmail(), user);
+            byEmpId.put(user.getEmpId(), user);
+            // An eviction since the read started may have been for this row: drop what we just put
+            if (evictions.get() != before) {
+                byId.invalidate(user.getId());
+                byEmail.invalidate(user.getEmail());
+                byEmpId.invalidate(user.getEmpId());
+            }
+        });
+        return loaded;
+    }
+    
+    private <K> Cache<K, User> newCache(String name) {
+        Cache<K, User> cache = Caffeine.newBuilder()
+                .maximumSize(enabled ? maxSize : 0)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+}
@@ -0,0 +1,9 @@
+package com.trackerapp.service;
+
+// Email or employee ID is already taken by another user
+public class UserConflictException extends RuntimeException {
+    
+    public UserConflictException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,261 @@
+package com.trackerapp.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackerapp.repository.projection.UserExportRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Full extracts of the user directory. Rows come from a forward-only cursor
+ * in one read-only transaction and are written out as they arrive, so no
+ * list of users or entities is ever built and memory stays the same at any
+ * table size. The query is a plain consistent read that takes no row locks,
+ * so writes carry on while an export runs.
+ */
+@Service
+public class UserExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    // Where the rows go; opened only once the export has a slot, so a refused export writes nothing
+    @FunctionalInterface
+    public interface Target {
+        OutputStream open() throws IOException;
+    }
+
+    private static final String QUERY = "select new com.trackerapp.repository.projection.UserExportRow("
+            + "u.id, u.fullName, u.email, u.department, u.empId, u.mobileNo, u.role, u.enabled) "
+            + "from User u order by u.id";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CLEAR_INTERVAL = 1000;
+    // Connector/J streams rows one at a time for this fetch size on a forward-only, read-only result;
+    // any other value reads the whole result into memory first
+    private static final int MYSQL_STREAMING = Integer.MIN_VALUE;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Rows per round trip on databases other than MySQL, which streams this one query instead
+    @Value("${tracker.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    // Each running export holds a database connection until its last row is written
+    @Value("${tracker.export.max-concurrent:1}")
+    private int maxConcurrent;
+
+    private Semaphore slots;
+    private Counter rowsExported;
+    private int queryFetchSize;
+
+    @PostConstruct
+    public void init() {
+        // Only this query streams, so useCursorFetch (and the server-side prepares it switches on for
+        // every statement) stays off the shared datasource
+        queryFetchSize = datasourceUrl.startsWith("jdbc:mysql:") ? MYSQL_STREAMING : fetchSize;
+        slots = new Semaphore(maxConcurrent);
+        rowsExported = Counter.builder("tracker.export.rows")
+                .description("User rows written by exports")
+                .register(meterRegistry);
+    }
+
+    // Returns the number of rows written. On failure the stream is left unfinished, so a truncated
+    // extract never looks complete to the client.
+    public long export(Format format, Target target) throws IOException {
+        if (!slots.tryAcquire()) {
+            throw new ExportCapacityExceededException();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "aborted";
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target.open(), StandardCharsets.UTF_8), BUFFER_SIZE);
+            RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer, objectMapper.getFactory());
+            long count = stream(rows);
+            rows.finish();
+            writer.close();
+            outcome = "success";
+            return count;
+        } finally {
+            slots.release();
+            sample.stop(Timer.builder("tracker.export.duration")
+                    .description("Time to stream a user export by format and outcome")
+                    .tag("format", format.name().toLowerCase())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private long stream(RowWriter rows) throws IOException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            return transaction.execute(status -> {
+                try (Stream<UserExportRow> users = entityManager.createQuery(QUERY, UserExportRow.class)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, queryFetchSize)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultStream()) {
+                    long count = 0;
+                    Iterator<UserExportRow> iterator = users.iterator();
+                    while (iterator.hasNext()) {
+                        rows.write(iterator.next());
+                        if (++count % CLEAR_INTERVAL == 0) {
+                            // Projection rows are not managed, but anything the session does pick up is dropped here
+                            entityManager.clear();
+                            rowsExported.increment(CLEAR_INTERVAL);
+                        }
+                    }
+                    rowsExported.increment(count % CLEAR_INTERVAL);
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface RowWriter {
+        void write(UserExportRow row) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    // Spreadsheets read a cell starting with one of these as a formula (OWASP CSV injection)
+    static boolean startsLikeFormula(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+
+    // RFC 4180: CRLF line ends, fields quoted only when they contain a comma, quote or line break.
+    // The header matches the import columns, apart from the password, which is never exported.
+    // Self-registered text is opened in spreadsheets, so formula-like values get a leading '.
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+
+        CsvRowWriter(Writer out) throws IOException {
+            this.out = out;
+            out.write("id,fullName,email,department,empId,mobileNo,role,enabled\r\n");
+        }
+
+        @Override
+        public void write(UserExportRow row) throws IOException {
+            out.write(Long.toString(row.id()));
+            out.write(',');
+            field(row.fullName());
+            out.write(',');
+            field(row.email());
+            out.write(',');
+            field(row.department());
+            out.write(',');
+            field(row.empId());
+            out.write(',');
+            field(row.mobileNo());
+            out.write(',');
+            out.write(row.role().name());
+            out.write(',');
+            out.write(row.enabled() ? "true" : "false");
+            out.write("\r\n");
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void field(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (startsLikeFormula(value)) {
+                value = "'" + value;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+    // One object per line, fields written directly instead of through databinding
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+        private final Writer out;
+
+        NdjsonRowWriter(Writer out, JsonFactory factory) throws IOException {
+            this.out = out;
+            // The generator must neither close nor flush the response; the newline is written by hand
+            this.json = factory.createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                    .setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(UserExportRow row) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", row.id());
+            json.writeStringField("fullName", row.fullName());
+            json.writeStringField("email", row.email());
+            json.writeStringField("department", row.department());
+            json.writeStringField("empId", row.empId());
+            json.writeStringField("mobileNo", row.mobileNo());
+            json.writeStringField("role", row.role().name());
+            json.writeBooleanField("enabled", row.enabled());
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // Hands buffered output to the writer; the writer itself is closed by the caller
+            json.close();
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.trackerapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackerapp.dto.RegistrationRequest;
+import com.trackerapp.model.Role;
+import com.trackerapp.service.search.UserSearchIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk user onboarding. Rows are read one at a time from the request body,
+ * validated with the same rules as {@link RegistrationRequest}, hashed in
+ * parallel and written with JDBC batch inserts, one transaction per batch.
+ */
+@Service
+public class UserImportService {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO users (full_name, email, password, department, emp_id, mobile_no, role, enabled, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    
+    public enum Format { CSV, NDJSON }
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserAvailabilityIndex availabilityIndex;
+    
+    @Autowired
+    private UserStatistics userStatistics;
+    
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
+    @Value("${tracker.import.batch-size:500}")
+    private int batchSize;
+    
+    // 0 means one thread per available core
+    @Value("${tracker.import.hashing-threads:0}")
+    private int hashingThreads;
+    
+    @Value("${tracker.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+    
+    private ExecutorService hashingExecutor;
+    
+    @PostConstruct
+    public void init() {
+        int poolSize = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        hashingExecutor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+    
+    public Map<String, Object> importUsers(BufferedReader reader, Format format) throws IOException {
+        ImportReport report = new ImportReport(maxReportedErrors);
+        RowReader rows = format == Format.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+        
+        // Keys seen earlier in this file; the availability index covers existing users
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenEmpIds = new HashSet<>();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        // Batch inserts do not return generated ids; new rows are picked up above this one afterwards
+        long indexedUpTo = userSearchIndex.highestUserId();
+        
+        ImportRow row;
+        while ((row = rows.next(report)) != null) {
+            String error = validate(row.request);
+            if (error == null) {
+                error = checkDuplicates(row.request, seenEmails, seenEmpIds);
+            }
+            if (error != null) {
+                report.fail(row.rowNumber, error);
+                continue;
+            }
+            
+            batch.add(row);
+            if (batch.size() >= batchSize) {
+                writeBatch(batch, report);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, report);
+        }
+        userSearchIndex.catchUp(indexedUpTo);
+        
+        return report.toResponse();
+    }
+    
+    private String validate(RegistrationRequest request) {
+        // Imports usually omit the confirmation column
+        if (request.getConfirmPassword() == null) {
+            request.setConfirmPassword(request.getPassword());
+        }
+        
+        Set<ConstraintViolation<RegistrationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (!request.getPassword().equals(request.getConfirmPassword())) {
+            return "Passwords do not match";
+        }
+        return null;
+    }
+    
+    private String checkDuplicates(RegistrationRequest request, Set<String> seenEmails, Set<String> seenEmpIds) {
+        // Case-insensitive, like the unique constraints the rows will be inserted against
+        String email = UserAvailabilityIndex.fold(request.getEmail());
+        String empId = UserAvailabilityIndex.fold(request.getEmpId());
+        
+        if (seenEmails.contains(email) || availabilityIndex.emailExists(email)) {
+            return "Email already exists";
+        }
+        if (seenEmpIds.contains(empId) || availabilityIndex.empIdExists(empId)) {
+            return "Employee ID already exists";
+        }
+        seenEmails.add(email);
+        seenEmpIds.add(empId);
+        return null;
+    }
+    
+    private void writeBatch(List<ImportRow> batch, ImportReport report) {
+        // Hash the whole batch in parallel before touching the database
+        List<CompletableFuture<String>> hashes = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            String rawPassword = row.request.getPassword();
+            hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), hashingExecutor));
+        }
+        List<Object[]> params = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            params.add(toParams(batch.get(i).request, hashes.get(i).join()));
+        }
+        
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, params));
+            for (ImportRow row : batch) {
+                availabilityIndex.add(row.request.getEmail(), row.request.getEmpId());
+                userStatistics.userAdded(row.request.getDepartment(), Role.USER, true);
+            }
+            report.imported(batch.size());
+        } catch (DataAccessException e) {
+            // Someone else took a key meanwhile; retry row by row to pin down the culprits
+            for (int i = 0; i < batch.size(); i++) {
+                ImportRow row = batch.get(i);
+                Object[] rowParams = params.get(i);
+                try {
+                    transaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL, rowParams));
+                    availabilityIndex.add(row.request.getEmail(), row.request.getEmpId());
+                    userStatistics.userAdded(row.request.getDepartment(), Role.USER, true);
+                    report.imported(1);
+                } catch (DataAccessException rowError) {
+                    report.fail(row.rowNumber, rowFailure(rowError));
+                }
+            }
+        }
+    }
+    
+    // Only a violated unique key means the row lost a race; anything else is reported as it is
+    private static String rowFailure(DataAccessException e) {
+        String conflict = e instanceof DataIntegrityViolationException violation
+                ? UserService.conflictMessage(violation) : null;
+        return conflict != null ? conflict : "Could not insert row: " + e.getMostSpecificCause().getMessage();
+    }
+    
+    private Object[] toParams(RegistrationRequest request, String encodedPassword) {
+        return new Object[] {
+            request.getFullName(),
+            request.getEmail(),
+            encodedPassword,
+            request.getDepartment(),
+            request.getEmpId(),
+            request.getMobileNo(),
+            Role.USER.name(),
+            true
+        };
+    }
+    
+    private static final class ImportRow {
+        final long rowNumber;
+        final RegistrationRequest request;
+        
+        ImportRow(long rowNumber, RegistrationRequest request) {
+            this.rowNumber = rowNumber;
+            this.request = request;
+        }
+    }
+    
+    private static final class ImportReport {
+        private final int maxErrors;
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+        
+        ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+        
+        void imported(int count) {
+            imported += count;
+        }
+        
+        void fail(long rowNumber, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("row", rowNumber);
+                error.put("message", message);
+                errors.add(error);
+            }
+        }
+        
+        Map<String, Object> toResponse() {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", failed == 0);
+            response.put("imported", imported);
+            response.put("failed", failed);
+            response.put("errors", errors);
+            response.put("errorsTruncated", failed > errors.size());
+            return response;
+        }
+    }
+    
+    private interface RowReader {
+        // Returns null at end of input; unparseable rows are reported and skipped
+        ImportRow next(ImportReport report) throws IOException;
+    }
+    
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long lineNumber;
+        
+        NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        @Override
+        public ImportRow next(ImportReport report) throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ImportRow(lineNumber, objectMapper.readValue(line, RegistrationRequest.class));
+                } catch (JsonProcessingException e) {
+                    report.fail(lineNumber, "Malformed JSON");
+                }
+            }
+            return null;
+        }
+    }
+    
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long lineNumber;
+        private long recordStart;
+        private Map<String, Integer> columns;
+        
+        CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        @Override
+        public ImportRow next(ImportReport report) throws IOException {
+            if (columns == null && !readHeader()) {
+                return null;
+            }
+            
+            List<String> fields;
+            while ((fields = readRecord()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                RegistrationRequest request = new RegistrationRequest();
+                request.setFullName(field(fields, "fullname"));
+                request.setEmail(field(fields, "email"));
+                request.setPassword(field(fields, "password"));
+                request.setConfirmPassword(field(fields, "confirmpassword"));
+                request.setDepartment(field(fields, "department"));
+                request.setEmpId(field(fields, "empid"));
+                request.setMobileNo(field(fields, "mobileno"));
+                return new ImportRow(recordStart, request);
+            }
+            return null;
+        }
+        
+        private boolean readHeader() throws IOException {
+            List<String> header = readRecord();
+            if (header == null) {
+                return false;
+            }
+            columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                // Accept both fullName and full_name style headers
+                String name = header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT);
+                columns.put(name, i);
+            }
+            return true;
+        }
+        
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index);
+            // Undoes the export's formula guard, so an exported file imports unchanged
+            if (value.length() > 1 && value.charAt(0) == '\'' && UserExportService.startsLikeFormula(value.substring(1))) {
+                return value.substring(1);
+            }
+            return value;
+        }
+        
+        // RFC 4180 record; quoted fields may span lines
+        private List<String> readRecord() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            recordStart = ++lineNumber;
+            
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    String continuation = reader.readLine();
+                    if (continuation == null) {
+                        break;
+                    }
+                    lineNumber++;
+                    current.append('\n');
+                    line = continuation;
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            fields.add(current.toString());
+            return fields;
+        }
+    }
+}
\ No newline at end of file
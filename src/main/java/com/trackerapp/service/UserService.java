@@ -3,78 +3,260 @@ package com.trackerapp.service;
 import com.trackerapp.model.User;
 import com.trackerapp.model.Role;
 import com.trackerapp.repository.UserRepository;
+import com.trackerapp.repository.projection.UserSummary;
+import com.trackerapp.service.search.UserSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserService {
     
+    private static final String EMAIL_EXISTS = "Email already exists";
+    private static final String EMP_ID_EXISTS = "Employee ID already exists";
+    
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
     
-    public User registerUser(User user) {
-        // Check if email already exists
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Email already exists");
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
+    @Autowired
+    private UserAvailabilityIndex availabilityIndex;
+    
+    @Autowired
+    private UserVersionRegistry userVersionRegistry;
+    
+    @Autowired
+    private AuthTokenService authTokenService;
+    
+    @Autowired
+    private UserCache userCache;
+    
+    @Autowired
+    private UserStatistics userStatistics;
+    
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Counter rehashed;
+    private Counter rehashStale;
+    private Counter rehashSkipped;
+    
+    @PostConstruct
+    public void init() {
+        rehashed = rehashCounter("rehashed");
+        rehashStale = rehashCounter("stale");
+        rehashSkipped = rehashCounter("skipped");
+    }
+    
+    private Counter rehashCounter(String outcome) {
+        return Counter.builder("tracker.password.rehash")
+                .description("Background password rehashes after login by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    public CompletableFuture<User> registerUser(User user) {
+        // Cheap in-memory prechecks turn away known duplicates before the expensive hash
+        if (availabilityIndex.emailExists(user.getEmail())) {
+            return CompletableFuture.failedFuture(new UserConflictException(EMAIL_EXISTS));
         }
-        
-        // Check if employee ID already exists
-        if (userRepository.existsByEmpId(user.getEmpId())) {
-            throw new RuntimeException("Employee ID already exists");
+        if (availabilityIndex.empIdExists(user.getEmpId())) {
+            return CompletableFuture.failedFuture(new UserConflictException(EMP_ID_EXISTS));
         }
         
-        // Encode password
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        // Encode password on the hashing pool, then save
+        return passwordHashingService.encode(user.getPassword()).thenApply(encodedPassword -> {
+            user.setPassword(encodedPassword);
+            
+            // Set default role as USER
+            user.setRole(Role.USER);
+            
+            // A single INSERT; the unique constraints settle concurrent signups for the same keys
+            User savedUser;
+            try {
+                savedUser = userRepository.save(user);
+            } catch (DataIntegrityViolationException e) {
+                throw toConflict(e);
+            }
+            availabilityIndex.add(savedUser.getEmail(), savedUser.getEmpId());
+            userStatistics.userAdded(savedUser.getDepartment(), savedUser.getRole(), savedUser.isEnabled());
+            userSearchIndex.put(savedUser);
+            userCache.evict(savedUser);
+            return savedUser;
+        });
+    }
+    
+    public CompletableFuture<Optional<User>> authenticateUser(String email, String password) {
+        Optional<User> userOpt = userCache.findByEmail(email);
         
-        // Set default role as USER
-        user.setRole(Role.USER);
+        if (userOpt.isEmpty()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
         
-        return userRepository.save(user);
+        User user = userOpt.get();
+        if (!user.isEnabled()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return passwordHashingService.matches(password, user.getPassword())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        return Optional.<User>empty();
+                    }
+                    if (passwordHashingService.needsRehash(user.getPassword())) {
+                        rehashInBackground(user, password);
+                    }
+                    return Optional.of(user);
+                });
     }
     
-    public Optional<User> authenticateUser(String email, String password) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
-        
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            if (passwordEncoder.matches(password, user.getPassword())) {
-                return Optional.of(user);
+    // Moves the stored hash to the current algorithm and strength; the login response does not wait
+    private void rehashInBackground(User user, String rawPassword) {
+        passwordHashingService.encodeWhenIdle(rawPassword)
+                .thenAccept(newHash -> {
+                    int updated = userRepository.replacePasswordHash(user.getId(), user.getPassword(), newHash);
+                    if (updated == 1) {
+                        // By every key: the id entry alone may already have been evicted for size
+                        userCache.evict(user);
+                    }
+                    (updated == 1 ? rehashed : rehashStale).increment();
+                })
+                .exceptionally(ex -> {
+                    // Busy or failed: the next successful login tries again
+                    rehashSkipped.increment();
+                    return null;
+                });
+    }
+    
+    public User updateRole(Long userId, Role role) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Role previous = user.getRole();
+        user.setRole(role);
+        User savedUser = saveAndInvalidateSessions(user);
+        // The @Version check in save guarantees previous was the committed value
+        userStatistics.roleChanged(previous, role);
+        return savedUser;
+    }
+    
+    public User updateEnabled(Long userId, boolean enabled) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        boolean previous = user.isEnabled();
+        user.setEnabled(enabled);
+        User savedUser = saveAndInvalidateSessions(user);
+        userStatistics.enabledChanged(previous, enabled);
+        return savedUser;
+    }
+    
+    // Signs the user out everywhere: the new version invalidates every existing session and token
+    public User updatePassword(Long userId, String encodedPassword) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setPassword(encodedPassword);
+        return saveAndInvalidateSessions(user);
+    }
+
+    private User saveAndInvalidateSessions(User user) {
+        User savedUser = userRepository.save(user);
+        // New version makes existing session snapshots for this user stale
+        userVersionRegistry.bump(savedUser.getId(), savedUser.getVersion());
+        authTokenService.userChanged(savedUser.getId(), savedUser.getVersion());
+        userCache.evict(savedUser);
+        return savedUser;
+    }
+    
+    // Maps a unique constraint violation to the field that clashed; anything else is rethrown
+    private static RuntimeException toConflict(DataIntegrityViolationException e) {
+        String conflict = conflictMessage(e);
+        return conflict != null ? new UserConflictException(conflict) : e;
+    }
+    
+    // The user-facing message for a violated unique key, or null if the failure is anything else
+    static String conflictMessage(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String detail = cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    ? violation.getConstraintName() : cause.getMessage();
+            if (detail == null) {
+                continue;
+            }
+            detail = detail.toLowerCase(Locale.ROOT);
+            if (detail.contains(User.EMAIL_CONSTRAINT)) {
+                return EMAIL_EXISTS;
+            }
+            if (detail.contains(User.EMP_ID_CONSTRAINT)) {
+                return EMP_ID_EXISTS;
             }
         }
-        return Optional.empty();
+        return null;
+    }
+    
+    public Optional<User> findById(Long id) {
+        return userCache.findById(id);
     }
     
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userCache.findByEmail(email);
+    }
+    
+    public Optional<User> findByEmpId(String empId) {
+        return userCache.findByEmpId(empId);
+    }
+    
+    public List<UserSummary> listUsers(long afterId, String department, Role role, Boolean enabled, int limit) {
+        return userRepository.findSummariesAfter(afterId, department, role, enabled, Limit.of(limit));
     }
     
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        return availabilityIndex.emailExists(email);
     }
     
     public boolean empIdExists(String empId) {
-        return userRepository.existsByEmpId(empId);
+        return availabilityIndex.empIdExists(empId);
     }
     
-    public void createDefaultAdmin() {
+    // encodedPassword is a precomputed hash, or null to hash the default password here
+    public void createDefaultAdmin(String encodedPassword) {
         if (!userRepository.existsByEmail("admin@trackerpro.com")) {
             User admin = new User();
             admin.setFullName("Admin User");
             admin.setEmail("admin@trackerpro.com");
-            admin.setPassword(passwordEncoder.encode("admin123"));
+            admin.setPassword(encodedPassword != null ? encodedPassword : passwordEncoder.encode("admin123"));
             admin.setDepartment("Administration");
             admin.setEmpId("ADMIN001");
             admin.setMobileNo("+91-9999999999");
             admin.setRole(Role.ADMIN);
             admin.setEnabled(true);
             
-            userRepository.save(admin);
+            try {
+                userRepository.save(admin);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance seeded it first
+                return;
+            }
+            availabilityIndex.add(admin.getEmail(), admin.getEmpId());
+            userStatistics.userAdded(admin.getDepartment(), admin.getRole(), admin.isEnabled());
+            userSearchIndex.put(admin);
+            userCache.evict(admin);
         }
     }
 }
\ No newline at end of file
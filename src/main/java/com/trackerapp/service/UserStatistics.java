@@ -0,0 +1,249 @@
+package com.trackerapp.service;
+
+import com.trackerapp.model.Role;
+import com.trackerapp.repository.UserRepository;
+import com.trackerapp.repository.projection.UserGroupCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live headcounts by department, role and enabled status for the dashboard.
+ * Counters are loaded once with a single GROUP BY and then moved by every
+ * committed write, so reads never touch the database. A periodic check
+ * against the table repairs drift from writes this instance did not see.
+ */
+@Service
+public class UserStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatistics.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile Counts counts = new Counts();
+
+    // Set after every write; the next read rebuilds the cached snapshot, every other read returns it as is
+    private volatile boolean dirty = true;
+    private volatile Snapshot cached;
+
+    // Difference seen by the previous check; only a repeat is corrected, so a write racing the query is not
+    private Snapshot pendingDrift;
+
+    private volatile boolean ready;
+
+    private final AtomicBoolean loadStarted = new AtomicBoolean();
+
+    private Counter driftObserved;
+    private Counter driftCorrected;
+
+    @PostConstruct
+    public void init() {
+        driftObserved = driftCounter("observed");
+        driftCorrected = driftCounter("corrected");
+        Gauge.builder("tracker.stats.users", this, statistics -> statistics.counts.total.sum())
+                .description("Users counted by the dashboard statistics")
+                .register(meterRegistry);
+    }
+
+    // Until the load completes, snapshots are computed from the database
+    @EventListener
+    public void load(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && loadStarted.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("statistics-load").start(() -> {
+                long start = System.currentTimeMillis();
+                Counts loaded = countInDatabase();
+                // Writes that commit while the query runs may be missed here; the drift check settles them
+                counts = loaded;
+                dirty = true;
+                ready = true;
+                log.info("User statistics loaded with {} users in {} ms",
+                        loaded.total.sum(), System.currentTimeMillis() - start);
+            });
+        }
+    }
+
+    @Scheduled(initialDelayString = "${tracker.stats.reconcile-interval-ms:300000}",
+               fixedDelayString = "${tracker.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (!ready) {
+            return;
+        }
+        Snapshot drift = countInDatabase().snapshot().minus(counts.snapshot());
+        if (drift.isEmpty()) {
+            pendingDrift = null;
+            return;
+        }
+        driftObserved.increment();
+        if (!drift.equals(pendingDrift)) {
+            pendingDrift = drift;
+            log.debug("User statistics differ from the database by {}; rechecking next round", drift);
+            return;
+        }
+        // Add the difference rather than overwrite, so concurrent increments are kept
+        counts.apply(drift);
+        dirty = true;
+        pendingDrift = null;
+        driftCorrected.increment();
+        log.warn("User statistics drifted from the database by {}; corrected", drift);
+    }
+
+    // The write methods below must be called only after the change has been committed
+
+    public void userAdded(String department, Role role, boolean enabled) {
+        counts.add(department, role, enabled, 1);
+        dirty = true;
+    }
+
+    public void roleChanged(Role from, Role to) {
+        if (from != to) {
+            Counts current = counts;
+            current.byRole.get(from).decrement();
+            current.byRole.get(to).increment();
+            dirty = true;
+        }
+    }
+
+    public void enabledChanged(boolean from, boolean to) {
+        if (from != to) {
+            Counts current = counts;
+            current.status(from).decrement();
+            current.status(to).increment();
+            dirty = true;
+        }
+    }
+
+    public Snapshot snapshot() {
+        if (!ready) {
+            return countInDatabase().snapshot();
+        }
+        Snapshot snapshot = cached;
+        if (dirty || snapshot == null) {
+            // Clear before summing: a write landing during the sum sets it again
+            dirty = false;
+            snapshot = counts.snapshot();
+            cached = snapshot;
+        }
+        return snapshot;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private Counts countInDatabase() {
+        Counts fresh = new Counts();
+        for (UserGroupCount group : userRepository.countByDepartmentRoleEnabled()) {
+            fresh.add(group.department(), group.role(), group.enabled(), group.count());
+        }
+        return fresh;
+    }
+
+    private Counter driftCounter(String outcome) {
+        return Counter.builder("tracker.stats.drift")
+                .description("Drift between the dashboard statistics and the database by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Point-in-time headcounts. Departments are sorted by name; every role is
+     * present even when its count is zero.
+     */
+    public record Snapshot(long total, long enabled, long disabled,
+                           Map<String, Long> byRole, Map<String, Long> byDepartment) {
+
+        Snapshot minus(Snapshot other) {
+            return new Snapshot(total - other.total, enabled - other.enabled, disabled - other.disabled,
+                    difference(byRole, other.byRole), difference(byDepartment, other.byDepartment));
+        }
+
+        boolean isEmpty() {
+            return total == 0 && enabled == 0 && disabled == 0 && byRole.isEmpty() && byDepartment.isEmpty();
+        }
+
+        // Keeps only the keys whose values differ
+        private static Map<String, Long> difference(Map<String, Long> left, Map<String, Long> right) {
+            Set<String> keys = new HashSet<>(left.keySet());
+            keys.addAll(right.keySet());
+            Map<String, Long> difference = new TreeMap<>();
+            for (String key : keys) {
+                long delta = left.getOrDefault(key, 0L) - right.getOrDefault(key, 0L);
+                if (delta != 0) {
+                    difference.put(key, delta);
+                }
+            }
+            return difference;
+        }
+    }
+
+    private static final class Counts {
+        final LongAdder total = new LongAdder();
+        final LongAdder enabled = new LongAdder();
+        final LongAdder disabled = new LongAdder();
+        final Map<Role, LongAdder> byRole = new EnumMap<>(Role.class);
+        final Map<String, LongAdder> byDepartment = new ConcurrentHashMap<>();
+
+        Counts() {
+            for (Role role : Role.values()) {
+                byRole.put(role, new LongAdder());
+            }
+        }
+
+        LongAdder status(boolean isEnabled) {
+            return isEnabled ? enabled : disabled;
+        }
+
+        void add(String department, Role role, boolean isEnabled, long count) {
+            byDepartment.computeIfAbsent(department, key -> new LongAdder()).add(count);
+            byRole.get(role).add(count);
+            status(isEnabled).add(count);
+            total.add(count);
+        }
+
+        void apply(Snapshot drift) {
+            total.add(drift.total());
+            enabled.add(drift.enabled());
+            disabled.add(drift.disabled());
+            drift.byRole().forEach((role, delta) -> byRole.get(Role.valueOf(role)).add(delta));
+            drift.byDepartment().forEach((department, delta) ->
+                    byDepartment.computeIfAbsent(department, key -> new LongAdder()).add(delta));
+        }
+
+        Snapshot snapshot() {
+            Map<String, Long> roles = new TreeMap<>();
+            byRole.forEach((role, count) -> roles.put(role.name(), count.sum()));
+            Map<String, Long> departments = new TreeMap<>();
+            byDepartment.forEach((department, count) -> {
+                long sum = count.sum();
+                if (sum != 0) {
+                    departments.put(department, sum);
+                }
+            });
+            return new Snapshot(total.sum(), enabled.sum(), disabled.sum(),
+                    Collections.unmodifiableMap(roles), Collections.unmodifiableMap(departments));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.trackerapp.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latest known {@code User.version} per user. Session snapshots hold a
+ * reference to their user's stamp and compare it with the version they were
+ * built from, which lets the filter spot stale role/enabled data without a
+ * map lookup or database access on each request. Signed tokens, which have no
+ * server-side state to reference, are checked with {@link #isCurrent}.
+ */
+@Service
+public class UserVersionRegistry {
+
+    private final Map<Long, AtomicLong> stamps = new ConcurrentHashMap<>();
+
+    public AtomicLong stampFor(Long userId, long version) {
+        AtomicLong stamp = stamps.computeIfAbsent(userId, id -> new AtomicLong(version));
+        stamp.accumulateAndGet(version, Math::max);
+        return stamp;
+    }
+
+    // Recorded even for users without a session here, so signed tokens issued elsewhere are caught
+    public void bump(Long userId, long newVersion) {
+        stampFor(userId, newVersion);
+    }
+    
+    public boolean isCurrent(long userId, long version) {
+        AtomicLong stamp = stamps.get(userId);
+        return stamp == null || stamp.get() <= version;
+    }
+}
@@ -0,0 +1,15 @@
+package com.trackerapp.service.audit;
+
+import java.time.Instant;
+
+// Decoded form of one audit record, for readers; the write path never builds these
+public record AuditEvent(long sequence, Instant timestamp, AuditEventType type, long userId,
+                         String email, boolean emailTruncated, String ipAddress) {
+    
+    @Override
+    public String toString() {
+        return timestamp + " " + type + " user=" + (userId < 0 ? "-" : String.valueOf(userId))
+                + " email=" + (email.isEmpty() ? "-" : email + (emailTruncated ? "..." : ""))
+                + " ip=" + (ipAddress.isEmpty() ? "-" : ipAddress);
+    }
+}
@@ -0,0 +1,37 @@
+package com.trackerapp.service.audit;
+
+// Stored as a one-byte code; never renumber existing entries
+public enum AuditEventType {
+    LOGIN_SUCCESS(1),
+    LOGIN_FAILURE(2),
+    LOGIN_THROTTLED(3),
+    REGISTER_SUCCESS(4),
+    REGISTER_FAILURE(5),
+    LOGOUT(6),
+    PASSWORD_RESET_REQUESTED(7),
+    PASSWORD_RESET_SUCCESS(8),
+    PASSWORD_RESET_FAILURE(9),
+    PASSWORD_RESET_THROTTLED(10);
+    
+    private static final AuditEventType[] BY_CODE = new AuditEventType[16];
+    
+    static {
+        for (AuditEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+    
+    private final byte code;
+    
+    AuditEventType(int code) {
+        this.code = (byte) code;
+    }
+    
+    byte code() {
+        return code;
+    }
+    
+    static AuditEventType fromCode(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
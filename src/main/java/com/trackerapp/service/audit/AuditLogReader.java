@@ -0,0 +1,189 @@
+package com.trackerapp.service.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads audit segments written by {@link AuditLogService}, oldest first,
+ * stopping at the first record that fails its checksum. Runs standalone
+ * against a live or archived audit directory:
+ *
+ * <pre>
+ * java -Dloader.main=com.trackerapp.service.audit.AuditLogReader \
+ *      -cp target/tracker-pro-1.0.0.jar org.springframework.boot.loader.launch.PropertiesLauncher \
+ *      ./audit [--follow] [--type=LOGIN_FAILURE,LOGIN_THROTTLED] [--email=a@b.com] [--ip=10.0.0.1]
+ *              [--user=42] [--since=2024-01-01T00:00:00Z] [--limit=100]
+ * </pre>
+ */
+public class AuditLogReader {
+    
+    private static final long FOLLOW_POLL_MILLIS = 500;
+    
+    private final Path directory;
+    private final CRC32C crc = new CRC32C();
+    private final ByteBuffer buffer = ByteBuffer.allocate(AuditRecord.SIZE).order(AuditRecord.ORDER);
+    
+    public AuditLogReader(Path directory) {
+        this.directory = directory;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.err.println("Usage: AuditLogReader <directory> [--follow] [--type=T1,T2] [--email=]"
+                    + " [--ip=] [--user=] [--since=ISO-8601 instant] [--limit=]");
+            System.exit(2);
+        }
+        
+        boolean follow = false;
+        long limit = Long.MAX_VALUE;
+        Predicate<AuditEvent> filter = event -> true;
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            String value = arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : "";
+            if (arg.equals("--follow")) {
+                follow = true;
+            } else if (arg.startsWith("--type=")) {
+                Set<AuditEventType> types = EnumSet.noneOf(AuditEventType.class);
+                for (String type : value.split(",")) {
+                    types.add(AuditEventType.valueOf(type.trim().toUpperCase()));
+                }
+                filter = filter.and(event -> types.contains(event.type()));
+            } else if (arg.startsWith("--email=")) {
+                filter = filter.and(event -> event.email().equalsIgnoreCase(value));
+            } else if (arg.startsWith("--ip=")) {
+                filter = filter.and(event -> event.ipAddress().equals(value));
+            } else if (arg.startsWith("--user=")) {
+                long userId = Long.parseLong(value);
+                filter = filter.and(event -> event.userId() == userId);
+            } else if (arg.startsWith("--since=")) {
+                Instant since = Instant.parse(value);
+                filter = filter.and(event -> !event.timestamp().isBefore(since));
+            } else if (arg.startsWith("--limit=")) {
+                limit = Long.parseLong(value);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        
+        Predicate<AuditEvent> matching = filter;
+        long[] remaining = {limit};
+        new AuditLogReader(Path.of(args[0])).read(follow, event -> {
+            if (matching.test(event)) {
+                System.out.println(event.sequence() + " " + event);
+                return --remaining[0] > 0;
+            }
+            return true;
+        });
+    }
+    
+    /**
+     * Passes every valid record to {@code sink} until it returns false. With
+     * {@code follow}, keeps polling the newest segment for new records and
+     * moves on when the writer rotates; otherwise returns at the end of the
+     * newest segment.
+     */
+    public void read(boolean follow, Predicate<AuditEvent> sink) throws IOException, InterruptedException {
+        List<Path> segments = AuditSegmentWriter.segments(directory);
+        int index = 0;
+        long lastSequence = -1;
+        
+        while (true) {
+            if (index >= segments.size()) {
+                if (!follow) {
+                    return;
+                }
+                Thread.sleep(FOLLOW_POLL_MILLIS);
+                segments = AuditSegmentWriter.segments(directory);
+                index = position(segments, lastSequence);
+                continue;
+            }
+            
+            Path segment = segments.get(index);
+            long start = Math.max(lastSequence + 1, AuditSegmentWriter.sequenceOf(segment));
+            long next = readSegment(segment, start, sink);
+            if (next < 0) {
+                return;
+            }
+            lastSequence = next - 1;
+            
+            if (index + 1 < segments.size() || !follow) {
+                index++;
+                continue;
+            }
+            
+            // Tail of the newest segment: wait for more records or for the writer to rotate
+            Thread.sleep(FOLLOW_POLL_MILLIS);
+            List<Path> current = AuditSegmentWriter.segments(directory);
+            if (!current.isEmpty() && !current.get(current.size() - 1).equals(segment)) {
+                // Re-read the old segment once more before moving on, in case it gained records meanwhile
+                next = readSegment(segment, lastSequence + 1, sink);
+                if (next < 0) {
+                    return;
+                }
+                lastSequence = next - 1;
+                segments = current;
+                index = position(segments, lastSequence);
+            }
+        }
+    }
+    
+    // Index of the first segment that can hold records after lastSequence
+    private static int position(List<Path> segments, long lastSequence) {
+        int index = 0;
+        while (index + 1 < segments.size() && AuditSegmentWriter.sequenceOf(segments.get(index + 1)) <= lastSequence + 1) {
+            index++;
+        }
+        return index;
+    }
+    
+    /**
+     * Emits valid records of {@code segment} from sequence {@code start} on and
+     * returns the sequence after the last one read, or -1 if the sink asked
+     * to stop. A segment deleted by pruning counts as empty.
+     */
+    private long readSegment(Path segment, long start, Predicate<AuditEvent> sink) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(segment, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return start;
+        }
+        
+        try (channel) {
+            ByteBuffer header = ByteBuffer.allocate(AuditRecord.HEADER_SIZE).order(AuditRecord.ORDER);
+            if (channel.read(header, 0) < AuditRecord.HEADER_SIZE
+                    || header.getLong(AuditRecord.HEADER_MAGIC) != AuditRecord.MAGIC
+                    || header.getInt(AuditRecord.HEADER_RECORD_SIZE) != AuditRecord.SIZE) {
+                return start;
+            }
+            
+            long first = header.getLong(AuditRecord.HEADER_FIRST_SEQUENCE);
+            long sequence = Math.max(start, first);
+            long size = channel.size();
+            while (true) {
+                long offset = AuditRecord.HEADER_SIZE + (sequence - first) * AuditRecord.SIZE;
+                if (offset + AuditRecord.SIZE > size) {
+                    return sequence;
+                }
+                buffer.clear();
+                if (channel.read(buffer, offset) < AuditRecord.SIZE || !AuditRecord.isValid(crc, buffer, 0)) {
+                    return sequence;
+                }
+                if (!sink.test(AuditRecord.decode(buffer, 0, sequence))) {
+                    return -1;
+                }
+                sequence++;
+            }
+        }
+    }
+}
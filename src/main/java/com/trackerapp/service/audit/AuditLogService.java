@@ -0,0 +1,157 @@
+package com.trackerapp.service.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of authentication events. Request threads write a fixed-size
+ * record into a lock-free ring ({@link #record} allocates nothing and never
+ * blocks); a single writer thread drains the ring in batches into
+ * memory-mapped, rotating segment files. Read them with
+ * {@link AuditLogReader}.
+ *
+ * <p>Durability is set by {@code tracker.audit.fsync-interval-ms}: 0 forces
+ * every batch to disk before the next one is taken, a positive value forces
+ * at most that often (so a power loss can cost up to one interval), and a
+ * negative value leaves write-back to the OS (a process crash loses nothing
+ * already drained, a power loss may lose more). Events that arrive while
+ * the ring is full are dropped and counted rather than slowing logins down.
+ */
+@Service
+public class AuditLogService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AuditLogService.class);
+    
+    public static final long UNKNOWN_USER = -1;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${tracker.audit.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${tracker.audit.directory:./audit}")
+    private String directory;
+    
+    @Value("${tracker.audit.ring-capacity:65536}")
+    private int ringCapacity;
+    
+    @Value("${tracker.audit.segment-size-mb:64}")
+    private int segmentSizeMb;
+    
+    @Value("${tracker.audit.max-segments:32}")
+    private int maxSegments;
+    
+    @Value("${tracker.audit.fsync-interval-ms:1000}")
+    private long fsyncIntervalMs;
+    
+    @Value("${tracker.audit.batch-size:1024}")
+    private int batchSize;
+    
+    private volatile AuditRingBuffer ring;
+    private AuditSegmentWriter writer;
+    private Thread writerThread;
+    private volatile boolean running;
+    private Counter writtenCounter;
+    private Counter droppedCounter;
+    
+    @PostConstruct
+    public void init() throws IOException {
+        writtenCounter = Counter.builder("tracker.audit.events")
+                .description("Audit events by outcome")
+                .tag("outcome", "written")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("tracker.audit.events")
+                .description("Audit events by outcome")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        
+        if (!enabled) {
+            return;
+        }
+        
+        ring = new AuditRingBuffer(ringCapacity);
+        writer = new AuditSegmentWriter(Path.of(directory), (long) segmentSizeMb << 20, maxSegments);
+        Gauge.builder("tracker.audit.backlog", ring, AuditRingBuffer::backlog)
+                .description("Audit events waiting for the writer thread")
+                .register(meterRegistry);
+        
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Audit log writing to {} from sequence {}", Path.of(directory).toAbsolutePath(), writer.nextSequence());
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+    
+    public void record(AuditEventType type, long userId, String email, String ipAddress) {
+        if (ring == null) {
+            return;
+        }
+        if (!ring.offer(System.currentTimeMillis(), type, userId, email, ipAddress)) {
+            droppedCounter.increment();
+        }
+    }
+    
+    private void writeLoop() {
+        ByteBuffer batch = ByteBuffer.allocate(Math.max(1, batchSize) * AuditRecord.SIZE).order(AuditRecord.ORDER);
+        long lastForce = System.nanoTime();
+        long forceInterval = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs);
+        
+        try {
+            while (true) {
+                int drained = ring.drainTo(batch, 0, Math.max(1, batchSize));
+                if (drained > 0) {
+                    writer.append(batch, drained);
+                    writtenCounter.increment(drained);
+                }
+                
+                if (fsyncIntervalMs >= 0 && writer.isDirty() && System.nanoTime() - lastForce >= forceInterval) {
+                    writer.force();
+                    lastForce = System.nanoTime();
+                }
+                
+                if (drained == 0) {
+                    if (!running) {
+                        break;
+                    }
+                    // Idle: a short park keeps latency low without spinning a core
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Stop accepting events: better a visible gap than a silently broken log
+            log.error("Audit log writer failed; audit events are no longer recorded", e);
+            ring = null;
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Could not close audit segment", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.trackerapp.service.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * On-disk layout of the audit log. A segment is a 64-byte header followed by
+ * fixed-size little-endian records:
+ *
+ * <pre>
+ *   0  long  timestamp (epoch millis)
+ *   8  long  user id, -1 when unknown
+ *  16  byte  event type code
+ *  17  byte  email length in bytes
+ *  18  byte  IP address length in bytes
+ *  19  byte  flags (bit 0: email truncated)
+ *  20  int   CRC32C of the record with this field zeroed
+ *  24  120 bytes email, UTF-8
+ * 144  46 bytes IP address, ASCII
+ * 190  2 bytes padding
+ * </pre>
+ *
+ * The unwritten tail of a segment is zeros, which never passes the checksum,
+ * so readers stop at the first invalid record.
+ */
+final class AuditRecord {
+    
+    static final int SIZE = 192;
+    
+    static final int TIMESTAMP = 0;
+    static final int USER_ID = 8;
+    static final int TYPE = 16;
+    static final int EMAIL_LENGTH = 17;
+    static final int IP_LENGTH = 18;
+    static final int FLAGS = 19;
+    static final int CHECKSUM = 20;
+    static final int EMAIL = 24;
+    static final int EMAIL_CAPACITY = 120;
+    static final int IP = 144;
+    static final int IP_CAPACITY = 46;
+    
+    static final int FLAG_EMAIL_TRUNCATED = 1;
+    
+    static final int HEADER_SIZE = 64;
+    static final long MAGIC = 0x5452_4B41_5544_4954L; // "TRKAUDIT"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_MAGIC = 0;
+    static final int HEADER_VERSION = 8;
+    static final int HEADER_RECORD_SIZE = 12;
+    static final int HEADER_FIRST_SEQUENCE = 16;
+    static final int HEADER_CREATED = 24;
+    
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    
+    private AuditRecord() {}
+    
+    /**
+     * Writes {@code value} as UTF-8 at {@code offset}, stopping before the
+     * first character that would not fit, and stores the byte count at
+     * {@code lengthOffset}. Returns true if the value was truncated. Writes
+     * bytes one at a time so that the request thread allocates nothing.
+     */
+    static boolean putString(ByteBuffer buffer, int base, int offset, int capacity, int lengthOffset, String value) {
+        int written = 0;
+        boolean truncated = false;
+        if (value != null) {
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                int codePoint = value.charAt(i);
+                int next = i;
+                if (Character.isHighSurrogate((char) codePoint) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    codePoint = Character.toCodePoint((char) codePoint, value.charAt(i + 1));
+                    next = i + 1;
+                } else if (Character.isSurrogate((char) codePoint)) {
+                    codePoint = '?';
+                }
+                int needed = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+                if (written + needed > capacity) {
+                    truncated = true;
+                    break;
+                }
+                int at = base + offset + written;
+                switch (needed) {
+                    case 1 -> buffer.put(at, (byte) codePoint);
+                    case 2 -> {
+                        buffer.put(at, (byte) (0xC0 | (codePoint >> 6)));
+                        buffer.put(at + 1, (byte) (0x80 | (codePoint & 0x3F)));
+                    }
+                    case 3 -> {
+                        buffer.put(at, (byte) (0xE0 | (codePoint >> 12)));
+                        buffer.put(at + 1, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                        buffer.put(at + 2, (byte) (0x80 | (codePoint & 0x3F)));
+                    }
+                    default -> {
+                        buffer.put(at, (byte) (0xF0 | (codePoint >> 18)));
+                        buffer.put(at + 1, (byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                        buffer.put(at + 2, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                        buffer.put(at + 3, (byte) (0x80 | (codePoint & 0x3F)));
+                    }
+                }
+                written += needed;
+                i = next;
+            }
+        }
+        buffer.put(base + lengthOffset, (byte) written);
+        return truncated;
+    }
+    
+    static int checksum(CRC32C crc, ByteBuffer buffer, int base) {
+        crc.reset();
+        crc.update(buffer.slice(base, CHECKSUM));
+        crc.update(buffer.slice(base + CHECKSUM + 4, SIZE - CHECKSUM - 4));
+        return (int) crc.getValue();
+    }
+    
+    static boolean isValid(CRC32C crc, ByteBuffer buffer, int base) {
+        return buffer.getLong(base + TIMESTAMP) != 0
+                && buffer.getInt(base + CHECKSUM) == checksum(crc, buffer, base);
+    }
+    
+    static AuditEvent decode(ByteBuffer buffer, int base, long sequence) {
+        return new AuditEvent(
+                sequence,
+                Instant.ofEpochMilli(buffer.getLong(base + TIMESTAMP)),
+                AuditEventType.fromCode(buffer.get(base + TYPE)),
+                buffer.getLong(base + USER_ID),
+                string(buffer, base + EMAIL, Byte.toUnsignedInt(buffer.get(base + EMAIL_LENGTH))),
+                (buffer.get(base + FLAGS) & FLAG_EMAIL_TRUNCATED) != 0,
+                string(buffer, base + IP, Byte.toUnsignedInt(buffer.get(base + IP_LENGTH))));
+    }
+    
+    private static String string(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
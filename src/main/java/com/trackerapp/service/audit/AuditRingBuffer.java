@@ -0,0 +1,89 @@
+package com.trackerapp.service.audit;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Multi-producer, single-consumer ring of fixed-size audit records in one
+ * preallocated buffer. A producer claims a sequence with a CAS, writes its
+ * record straight into the slot and publishes the slot by storing the
+ * sequence in {@code published}. The consumer copies published slots in
+ * sequence order and then releases them by advancing {@code consumed}.
+ * Producers never block or allocate: when the ring is full the event is
+ * refused and the caller counts it as dropped.
+ */
+final class AuditRingBuffer {
+    
+    private final int capacity;
+    private final int mask;
+    private final ByteBuffer slots;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    
+    // Written only by the consumer
+    private volatile long consumed;
+    
+    AuditRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(requestedCapacity, 2));
+        this.mask = capacity - 1;
+        this.slots = ByteBuffer.allocate(capacity * AuditRecord.SIZE).order(AuditRecord.ORDER);
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+    
+    boolean offer(long timestamp, AuditEventType type, long userId, String email, String ipAddress) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        
+        // Absolute puts only: each producer touches nothing but its own slot
+        int index = (int) (sequence & mask);
+        int base = index * AuditRecord.SIZE;
+        slots.putLong(base + AuditRecord.TIMESTAMP, timestamp);
+        slots.putLong(base + AuditRecord.USER_ID, userId);
+        slots.put(base + AuditRecord.TYPE, type.code());
+        slots.putInt(base + AuditRecord.CHECKSUM, 0);
+        boolean truncated = AuditRecord.putString(slots, base, AuditRecord.EMAIL, AuditRecord.EMAIL_CAPACITY,
+                AuditRecord.EMAIL_LENGTH, email);
+        AuditRecord.putString(slots, base, AuditRecord.IP, AuditRecord.IP_CAPACITY, AuditRecord.IP_LENGTH, ipAddress);
+        slots.put(base + AuditRecord.FLAGS, truncated ? (byte) AuditRecord.FLAG_EMAIL_TRUNCATED : 0);
+        
+        // Release store: the consumer sees the whole record once it sees the sequence
+        published.setRelease(index, sequence);
+        return true;
+    }
+    
+    /**
+     * Copies up to {@code max} consecutive published records into
+     * {@code target} starting at {@code targetOffset}, frees their slots and
+     * returns how many were copied. Consumer thread only.
+     */
+    int drainTo(ByteBuffer target, int targetOffset, int max) {
+        long sequence = consumed;
+        int count = 0;
+        while (count < max) {
+            int index = (int) (sequence & mask);
+            if (published.getAcquire(index) != sequence) {
+                break;
+            }
+            target.put(targetOffset + count * AuditRecord.SIZE, slots, index * AuditRecord.SIZE, AuditRecord.SIZE);
+            sequence++;
+            count++;
+        }
+        if (count > 0) {
+            consumed = sequence;
+        }
+        return count;
+    }
+    
+    long backlog() {
+        return claimed.get() - consumed;
+    }
+}
@@ -0,0 +1,195 @@
+package com.trackerapp.service.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Appends records to memory-mapped segment files named after the sequence
+ * of their first record. Segments are preallocated at full size, so an
+ * append is a memory copy; {@link #force()} is the only call that waits for
+ * the disk. Single-threaded: owned by the audit writer thread.
+ */
+final class AuditSegmentWriter implements AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(AuditSegmentWriter.class);
+    
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".seg";
+    
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final int maxSegments;
+    private final CRC32C crc = new CRC32C();
+    
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long firstSequence;
+    private int capacity;
+    private int records;
+    private boolean dirty;
+    
+    AuditSegmentWriter(Path directory, long segmentBytes, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = (int) Math.max(1,
+                (Math.min(segmentBytes, Integer.MAX_VALUE) - AuditRecord.HEADER_SIZE) / AuditRecord.SIZE);
+        this.maxSegments = Math.max(1, maxSegments);
+        Files.createDirectories(directory);
+        
+        List<Path> segments = segments(directory);
+        if (segments.isEmpty() || !resume(segments.get(segments.size() - 1))) {
+            open(segments.isEmpty() ? 0 : nextSequenceAfter(segments.get(segments.size() - 1)));
+        }
+    }
+    
+    /**
+     * Copies {@code count} records from the start of {@code batch}, sealing
+     * each one with its checksum, and rotates to a new segment when the
+     * current one fills up.
+     */
+    void append(ByteBuffer batch, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            if (records == capacity) {
+                rotate();
+            }
+            int source = i * AuditRecord.SIZE;
+            batch.putInt(source + AuditRecord.CHECKSUM, AuditRecord.checksum(crc, batch, source));
+            mapped.put(AuditRecord.HEADER_SIZE + records * AuditRecord.SIZE, batch, source, AuditRecord.SIZE);
+            records++;
+        }
+        dirty |= count > 0;
+    }
+    
+    boolean isDirty() {
+        return dirty;
+    }
+    
+    // Flushes the mapped pages of the current segment to the storage device
+    void force() {
+        if (dirty) {
+            mapped.force();
+            dirty = false;
+        }
+    }
+    
+    long nextSequence() {
+        return firstSequence + records;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+    
+    private void rotate() throws IOException {
+        force();
+        channel.close();
+        open(nextSequence());
+        prune();
+    }
+    
+    private void open(long sequence) throws IOException {
+        Path file = directory.resolve(fileName(sequence));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                AuditRecord.HEADER_SIZE + (long) recordsPerSegment * AuditRecord.SIZE);
+        mapped.order(AuditRecord.ORDER);
+        mapped.putLong(AuditRecord.HEADER_MAGIC, AuditRecord.MAGIC);
+        mapped.putInt(AuditRecord.HEADER_VERSION, AuditRecord.FORMAT_VERSION);
+        mapped.putInt(AuditRecord.HEADER_RECORD_SIZE, AuditRecord.SIZE);
+        mapped.putLong(AuditRecord.HEADER_FIRST_SEQUENCE, sequence);
+        mapped.putLong(AuditRecord.HEADER_CREATED, System.currentTimeMillis());
+        firstSequence = sequence;
+        capacity = recordsPerSegment;
+        records = 0;
+        dirty = true;
+    }
+    
+    // Continues the newest segment after a restart, overwriting anything past its last valid record
+    private boolean resume(Path file) throws IOException {
+        FileChannel existing = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = existing.size();
+        if (size < AuditRecord.HEADER_SIZE + AuditRecord.SIZE) {
+            existing.close();
+            return false;
+        }
+        MappedByteBuffer map = existing.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        map.order(AuditRecord.ORDER);
+        if (map.getLong(AuditRecord.HEADER_MAGIC) != AuditRecord.MAGIC
+                || map.getInt(AuditRecord.HEADER_RECORD_SIZE) != AuditRecord.SIZE) {
+            existing.close();
+            return false;
+        }
+        
+        // Keeps the segment's own size even if the configured size has changed since it was created
+        int existingCapacity = (int) ((size - AuditRecord.HEADER_SIZE) / AuditRecord.SIZE);
+        int valid = 0;
+        while (valid < existingCapacity
+                && AuditRecord.isValid(crc, map, AuditRecord.HEADER_SIZE + valid * AuditRecord.SIZE)) {
+            valid++;
+        }
+        
+        channel = existing;
+        mapped = map;
+        firstSequence = map.getLong(AuditRecord.HEADER_FIRST_SEQUENCE);
+        capacity = existingCapacity;
+        records = valid;
+        if (records == capacity) {
+            rotate();
+        }
+        return true;
+    }
+    
+    private void prune() {
+        try {
+            List<Path> segments = segments(directory);
+            for (int i = 0; i < segments.size() - maxSegments; i++) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        } catch (IOException e) {
+            log.warn("Could not prune old audit segments in {}", directory, e);
+        }
+    }
+    
+    private long nextSequenceAfter(Path file) throws IOException {
+        // An unreadable newest segment is left alone; numbering carries on past everything it could hold
+        return sequenceOf(file) + Math.max(1, Files.size(file) / AuditRecord.SIZE);
+    }
+    
+    static String fileName(long firstSequence) {
+        return String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX);
+    }
+    
+    static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+    
+    // Oldest first; zero-padded names sort in sequence order
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX)
+                                && name.length() == PREFIX.length() + 20 + SUFFIX.length();
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
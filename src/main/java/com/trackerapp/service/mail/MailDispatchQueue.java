@@ -0,0 +1,218 @@
+package com.trackerapp.service.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outgoing mail, sent by one background thread so that callers never wait
+ * on the SMTP server. Messages are drained in batches and each batch goes
+ * out over a single SMTP connection; messages the server refuses, or the
+ * whole batch when it cannot be reached, are retried with exponential
+ * backoff up to {@code max-attempts}. The queue is bounded: when it is full,
+ * new messages are dropped and counted rather than blocking the caller.
+ */
+@Service
+public class MailDispatchQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(MailDispatchQueue.class);
+
+    @Autowired
+    private ObjectProvider<JavaMailSender> mailSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tracker.mail.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tracker.mail.from:no-reply@trackerpro.com}")
+    private String from;
+
+    @Value("${tracker.mail.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${tracker.mail.batch-size:50}")
+    private int batchSize;
+
+    @Value("${tracker.mail.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${tracker.mail.retry-base-ms:1000}")
+    private long retryBaseMillis;
+
+    @Value("${tracker.mail.retry-max-ms:60000}")
+    private long retryMaxMillis;
+
+    private BlockingQueue<Pending> queue;
+    private final DelayQueue<Pending> retries = new DelayQueue<>();
+
+    private Thread dispatcherThread;
+    private volatile boolean running;
+
+    private Counter sent;
+    private Counter retried;
+    private Counter failed;
+    private Counter dropped;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        sent = messageCounter("sent");
+        retried = messageCounter("retried");
+        failed = messageCounter("failed");
+        dropped = messageCounter("dropped");
+        Gauge.builder("tracker.mail.queue", this, dispatch -> dispatch.queue.size() + dispatch.retries.size())
+                .description("Messages waiting to be sent or retried")
+                .register(meterRegistry);
+
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        dispatcherThread = new Thread(this::dispatchLoop, "mail-dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (dispatcherThread == null) {
+            return;
+        }
+        running = false;
+        dispatcherThread.interrupt();
+        dispatcherThread.join(TimeUnit.SECONDS.toMillis(10));
+        int unsent = queue.size() + retries.size();
+        if (unsent > 0) {
+            log.warn("Mail dispatcher stopped with {} unsent messages", unsent);
+        }
+    }
+
+    // Never blocks; returns false when the message was dropped
+    public boolean enqueue(String to, String subject, String text) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(text);
+        if (running && queue.offer(new Pending(message, 1, 0))) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private void dispatchLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                // Wake at least every 100 ms so due retries go out even when nothing new arrives
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                retries.drainTo(batch, batchSize - batch.size());
+                if (!batch.isEmpty()) {
+                    send(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Mail dispatcher failed; continuing", e);
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            log.warn("No mail server configured (spring.mail.host); dropping {} messages", batch.size());
+            dropped.increment(batch.size());
+            return;
+        }
+
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = batch.get(i).message;
+        }
+        try {
+            // One connection for the whole batch
+            sender.send(messages);
+            sent.increment(messages.length);
+        } catch (MailSendException e) {
+            // Keys are the messages that failed; none means the server was never reached
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (Pending pending : batch) {
+                if (failedMessages.isEmpty() || failedMessages.containsKey(pending.message)) {
+                    retryOrGiveUp(pending, e);
+                } else {
+                    sent.increment();
+                }
+            }
+        } catch (MailException e) {
+            for (Pending pending : batch) {
+                retryOrGiveUp(pending, e);
+            }
+        }
+    }
+
+    private void retryOrGiveUp(Pending pending, MailException cause) {
+        if (pending.attempt >= maxAttempts) {
+            failed.increment();
+            log.warn("Giving up on mail to {} after {} attempts: {}",
+                    String.join(",", pending.message.getTo()), pending.attempt, cause.getMessage());
+            return;
+        }
+        long backoff = Math.min(retryMaxMillis, retryBaseMillis << Math.min(pending.attempt - 1, 20));
+        retries.add(new Pending(pending.message, pending.attempt + 1,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff)));
+        retried.increment();
+    }
+
+    private Counter messageCounter(String outcome) {
+        return Counter.builder("tracker.mail.messages")
+                .description("Outgoing mail messages by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // A message and its delivery attempt; due time only matters while it waits in the retry queue
+    private record Pending(SimpleMailMessage message, int attempt, long dueNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((Pending) other).dueNanos);
+        }
+    }
+}
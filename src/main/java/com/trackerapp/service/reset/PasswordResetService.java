@@ -0,0 +1,208 @@
+package com.trackerapp.service.reset;
+
+import com.trackerapp.model.User;
+import com.trackerapp.service.PasswordHashingService;
+import com.trackerapp.service.UserService;
+import com.trackerapp.service.mail.MailDispatchQueue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password resets by emailed link. A reset request only hands the address
+ * to a background worker and returns, so the caller sees the same work and
+ * the same answer whether or not the address belongs to anyone; the worker
+ * looks the user up, issues a single-use token and queues the email.
+ * Tokens are random, delivered only in the email, and held in memory by
+ * their SHA-256 hash until used or expired.
+ */
+@Service
+public class PasswordResetService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordResetService.class);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final int TOKEN_BYTES = 32;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private MailDispatchQueue mailQueue;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tracker.reset.token-ttl-minutes:30}")
+    private int tokenTtlMinutes;
+
+    @Value("${tracker.reset.wheel-tick-ms:1000}")
+    private long wheelTickMillis;
+
+    @Value("${tracker.reset.max-tokens:10000}")
+    private int maxTokens;
+
+    @Value("${tracker.reset.queue-capacity:1000}")
+    private int queueCapacity;
+
+    // Where the emailed link points; the token travels in the fragment so it never reaches server logs
+    @Value("${tracker.reset.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private ResetTokenStore tokens;
+    private ThreadPoolExecutor issuer;
+
+    private Counter issued;
+    private Counter unknown;
+    private Counter shed;
+    private Counter completed;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        tokens = new ResetTokenStore(TimeUnit.MINUTES.toMillis(tokenTtlMinutes), wheelTickMillis, maxTokens,
+                nowMillis());
+        // One thread is plenty: each request is a cached lookup and an enqueue, never an SMTP round trip
+        issuer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-reset");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        issued = requestCounter("issued");
+        unknown = requestCounter("unknown");
+        shed = requestCounter("shed");
+        completed = resetCounter("success");
+        rejected = resetCounter("invalid_token");
+        Gauge.builder("tracker.reset.tokens", tokens, ResetTokenStore::size)
+                .description("Password reset tokens outstanding")
+                .register(meterRegistry);
+        FunctionCounter.builder("tracker.reset.tokens.expired", tokens, ResetTokenStore::expired)
+                .description("Password reset tokens expired unused")
+                .register(meterRegistry);
+        FunctionCounter.builder("tracker.reset.tokens.evicted", tokens, ResetTokenStore::evicted)
+                .description("Password reset tokens evicted because the store was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        issuer.shutdown();
+    }
+
+    // Turns the wheel while no requests arrive, so expired tokens do not linger
+    @Scheduled(fixedDelayString = "${tracker.reset.wheel-tick-ms:1000}")
+    public void tick() {
+        tokens.advance(nowMillis());
+    }
+
+    // Returns at once and reveals nothing: the lookup, token and email all happen in the background
+    public void requestReset(String email) {
+        try {
+            issuer.execute(() -> issue(email));
+        } catch (RejectedExecutionException e) {
+            shed.increment();
+        }
+    }
+
+    // Empty when the token is unknown, expired or already used
+    public CompletableFuture<Optional<User>> reset(String token, String newPassword) {
+        String hash = hash(token);
+        if (tokens.peek(hash, nowMillis()) == ResetTokenStore.MISSING) {
+            rejected.increment();
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return passwordHashingService.encode(newPassword)
+                .thenApply(encoded -> {
+                    // Spent only now, so a rejected hash leaves the link usable; a concurrent reset gets MISSING
+                    long userId = tokens.consume(hash, nowMillis());
+                    if (userId == ResetTokenStore.MISSING) {
+                        rejected.increment();
+                        return Optional.empty();
+                    }
+                    User user = userService.updatePassword(userId, encoded);
+                    completed.increment();
+                    return Optional.of(user);
+                });
+    }
+
+    private void issue(String email) {
+        try {
+            Optional<User> user = userService.findByEmail(email);
+            if (user.isEmpty() || !user.get().isEnabled()) {
+                unknown.increment();
+                return;
+            }
+            byte[] bytes = new byte[TOKEN_BYTES];
+            random.nextBytes(bytes);
+            String token = ENCODER.encodeToString(bytes);
+            tokens.put(hash(token), user.get().getId(), nowMillis());
+
+            mailQueue.enqueue(user.get().getEmail(), "Reset your Tracker Pro password",
+                    "Hello " + user.get().getFullName() + ",\n\n"
+                    + "Use the link below to choose a new password. It expires in " + tokenTtlMinutes
+                    + " minutes and works once.\n\n"
+                    + baseUrl + "/forget#token=" + token + "\n\n"
+                    + "If you did not ask for this, ignore this email; your password has not changed.\n");
+            issued.increment();
+        } catch (RuntimeException e) {
+            log.error("Could not issue a password reset token", e);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Monotonic: wall clock adjustments must not expire tokens early or keep them alive
+    private static long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    private Counter requestCounter(String outcome) {
+        return Counter.builder("tracker.reset.requests")
+                .description("Password reset requests by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter resetCounter(String outcome) {
+        return Counter.builder("tracker.reset.completions")
+                .description("Password reset attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
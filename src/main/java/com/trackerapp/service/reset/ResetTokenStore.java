@@ -0,0 +1,207 @@
+package com.trackerapp.service.reset;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Outstanding password reset tokens, keyed by the token's hash; the token
+ * itself is never stored. At most one token per user and at most
+ * {@code maxTokens} overall, the oldest giving way when full.
+ *
+ * Expiry runs on a hashed timing wheel: each token is linked into the
+ * bucket of its deadline tick, and advancing the clock unlinks only the
+ * buckets that have come due, so expiring costs O(expired tokens) rather
+ * than a sweep over every entry. Every token has the same time to live, so
+ * a bucket only ever holds tokens of one deadline.
+ */
+final class ResetTokenStore {
+
+    static final long MISSING = -1;
+
+    private final long tickMillis;
+    private final long ttlTicks;
+    private final int maxTokens;
+
+    // Bucket lists in issue order: heads are the oldest, tails where new tokens are appended
+    private final Entry[] wheel;
+    private final Entry[] tails;
+    private final int mask;
+
+    private final Map<String, Entry> byHash = new HashMap<>();
+    private final Map<Long, Entry> byUser = new HashMap<>();
+
+    // Last tick whose bucket has been expired
+    private long currentTick;
+
+    private long expired;
+    private long evicted;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    ResetTokenStore(long ttlMillis, long tickMillis, int maxTokens, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.ttlTicks = Math.max(1, (ttlMillis + tickMillis - 1) / tickMillis);
+        this.maxTokens = maxTokens;
+        // Deadlines span at most ttlTicks ahead of the cursor, so they never wrap onto each other
+        int buckets = Integer.highestOneBit((int) ttlTicks) << 1;
+        this.wheel = new Entry[buckets];
+        this.tails = new Entry[buckets];
+        this.mask = buckets - 1;
+        this.currentTick = tick(nowMillis);
+    }
+
+    // Replaces any token the user already had
+    void put(String hash, long userId, long nowMillis) {
+        lock.lock();
+        try {
+            advance(nowMillis);
+            Entry previous = byUser.get(userId);
+            if (previous != null) {
+                remove(previous);
+            }
+            if (byHash.size() >= maxTokens) {
+                remove(oldest());
+                evicted++;
+            }
+            Entry entry = new Entry(hash, userId, currentTick + ttlTicks);
+            link(entry);
+            byHash.put(hash, entry);
+            byUser.put(userId, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The user the token was issued to, or MISSING when unknown or expired; the token stays valid
+    long peek(String hash, long nowMillis) {
+        lock.lock();
+        try {
+            advance(nowMillis);
+            Entry entry = byHash.get(hash);
+            return entry != null ? entry.userId : MISSING;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Like peek, but spends the token: of two concurrent calls only one gets the user
+    long consume(String hash, long nowMillis) {
+        lock.lock();
+        try {
+            advance(nowMillis);
+            Entry entry = byHash.get(hash);
+            if (entry == null) {
+                return MISSING;
+            }
+            remove(entry);
+            return entry.userId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Expires every bucket that has come due; also called by the periodic tick so memory is released when idle
+    void advance(long nowMillis) {
+        lock.lock();
+        try {
+            long target = tick(nowMillis);
+            // A gap longer than the wheel needs each bucket visited only once
+            long from = Math.max(currentTick + 1, target - mask);
+            for (long tick = from; tick <= target; tick++) {
+                expireBucket((int) (tick & mask));
+            }
+            if (target > currentTick) {
+                currentTick = target;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return byHash.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long expired() {
+        return expired;
+    }
+
+    long evicted() {
+        return evicted;
+    }
+
+    private long tick(long nowMillis) {
+        return Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    private void expireBucket(int bucket) {
+        Entry entry = wheel[bucket];
+        while (entry != null) {
+            Entry next = entry.next;
+            remove(entry);
+            expired++;
+            entry = next;
+        }
+    }
+
+    // Earliest issued: the head of the first occupied bucket after the cursor
+    private Entry oldest() {
+        for (long tick = currentTick + 1; ; tick++) {
+            Entry head = wheel[(int) (tick & mask)];
+            if (head != null) {
+                return head;
+            }
+        }
+    }
+
+    private void link(Entry entry) {
+        int bucket = (int) (entry.deadlineTick & mask);
+        Entry tail = tails[bucket];
+        entry.prev = tail;
+        if (tail != null) {
+            tail.next = entry;
+        } else {
+            wheel[bucket] = entry;
+        }
+        tails[bucket] = entry;
+    }
+
+    private void remove(Entry entry) {
+        int bucket = (int) (entry.deadlineTick & mask);
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            wheel[bucket] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            tails[bucket] = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+        byHash.remove(entry.hash);
+        byUser.remove(entry.userId);
+    }
+
+    // Intrusive list node: a bucket is a doubly linked list, so any token unlinks in O(1)
+    private static final class Entry {
+        final String hash;
+        final long userId;
+        final long deadlineTick;
+        Entry prev;
+        Entry next;
+
+        Entry(String hash, long userId, long deadlineTick) {
+            this.hash = hash;
+            this.userId = userId;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
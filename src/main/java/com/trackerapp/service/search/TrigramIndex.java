@@ -0,0 +1,758 @@
+package com.trackerapp.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram index over the searchable user fields: full name, the local part of
+ * the email, employee ID and department. Every user is a dense document
+ * number; each trigram, and each one- or two-character word prefix, maps to a
+ * posting list of document numbers: a sorted int[] while the gram is rare, a
+ * bitmap once it appears in more than 1 in 32 documents (where a bitmap is
+ * also the smaller of the two). A query intersects the lists of its grams,
+ * then verifies and scores the survivors against the stored text. Not
+ * thread-safe: {@link UserSearchIndex} guards it.
+ *
+ * Only the local part of an email is indexed; a term containing '@' is looked
+ * up by its local part and its domain is checked against the stored address.
+ */
+final class TrigramIndex {
+
+    static final int MIN_SUBSTRING = 3;
+
+    private static final char SEPARATOR = '\u001f';
+    private static final int MAX_TERMS = 8;
+
+    // Lists smaller than this stay arrays even in small indexes
+    private static final int MIN_BITMAP_SIZE = 1024;
+
+    // Per-term match quality; the field bonus below breaks ties between fields
+    private static final int EXACT = 100;
+    private static final int FIELD_PREFIX = 60;
+    private static final int WORD_PREFIX = 40;
+    private static final int SUBSTRING = 10;
+
+    private static final int FULL_NAME = 0;
+    private static final int EMAIL = 1;
+    private static final int EMP_ID = 2;
+    private static final int DEPARTMENT = 3;
+    private static final int[] FIELD_BONUS = {3, 2, 3, 0};
+
+    // Documents by number; an updated user gets a new number and the old one is marked dead
+    private long[] userIds;
+    private String[] texts;
+    private int[] departments;
+    private long[] dead;
+    private int documents;
+    private int deadDocuments;
+    private long textBytes;
+    private long highestUserId;
+    private final LongIntHashMap documentByUser;
+
+    // Departments repeat across thousands of users, so their text and grams are stored once
+    private final List<String> departmentNames = new ArrayList<>();
+    private final List<long[]> departmentGrams = new ArrayList<>();
+    private final Map<String, Integer> departmentIds = new HashMap<>();
+
+    private final LongIntHashMap postingByGram;
+    private int[][] postings;
+    private long[][] bitmaps;
+    private int[] postingSizes;
+    private int grams;
+
+    private long[] scratch = new long[64];
+
+    TrigramIndex(int expectedUsers) {
+        int capacity = Math.max(16, expectedUsers);
+        userIds = new long[capacity];
+        texts = new String[capacity];
+        departments = new int[capacity];
+        dead = new long[(capacity + 63) >>> 6];
+        documentByUser = new LongIntHashMap(capacity);
+        postingByGram = new LongIntHashMap(4096);
+        postings = new int[4096][];
+        bitmaps = new long[4096][];
+        postingSizes = new int[4096];
+    }
+
+    // Adds the user, or replaces the entry already indexed for the same id
+    void put(long userId, String fullName, String email, String empId, String department) {
+        int previous = documentByUser.get(userId);
+        if (previous != LongIntHashMap.MISSING) {
+            markDead(previous);
+        }
+        fullName = fullName != null ? fullName : "";
+        email = email != null ? email : "";
+        empId = empId != null ? empId : "";
+
+        int doc = documents;
+        ensureDocumentCapacity(doc + 1);
+        String text = fullName + SEPARATOR + email + SEPARATOR + empId;
+        userIds[doc] = userId;
+        texts[doc] = text;
+        departments[doc] = departmentId(department != null ? department : "");
+        textBytes += stringBytes(text);
+        documents++;
+        documentByUser.put(userId, doc);
+        highestUserId = Math.max(highestUserId, userId);
+
+        int count = collectGrams(text, 0, fullName.length(), 0);
+        int emailStart = fullName.length() + 1;
+        int at = email.indexOf('@');
+        count = collectGrams(text, emailStart, emailStart + (at >= 0 ? at : email.length()), count);
+        int empIdStart = emailStart + email.length() + 1;
+        count = collectGrams(text, empIdStart, text.length(), count);
+        long[] shared = departmentGrams.get(departments[doc]);
+        ensureScratch(count + shared.length);
+        System.arraycopy(shared, 0, scratch, count, shared.length);
+        count += shared.length;
+
+        // A gram found in several fields is posted once
+        Arrays.sort(scratch, 0, count);
+        long last = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || scratch[i] != last) {
+                last = scratch[i];
+                post(last, doc);
+            }
+        }
+    }
+
+    UserSearchResult search(String query, int limit, int maxCandidates) {
+        String[] terms = terms(query);
+        if (terms.length == 0 || limit <= 0) {
+            return UserSearchResult.EMPTY;
+        }
+
+        // Documents where every term starts a word go first: they outrank substring hits, so the
+        // candidate cap, which falls in document order, only ever cuts into the weaker matches
+        Collector collector = new Collector(terms, limit, maxCandidates);
+        int[] prefixSlots = slots(terms, true);
+        int[] slots = slots(terms, false);
+        boolean prefixPass = prefixSlots != null && prefixSlots.length > 0;
+        if (prefixPass) {
+            join(prefixSlots, collector);
+        }
+        if (slots != null && !collector.truncated && !(prefixPass && sameLists(slots, prefixSlots))) {
+            collector.skipPrefixMatches = prefixPass;
+            join(slots, collector);
+        }
+
+        List<UserSearchHit> hits = new ArrayList<>(collector.found);
+        for (int i = 0; i < collector.found; i++) {
+            hits.add(hit(collector.top[i]));
+        }
+        return new UserSearchResult(hits, collector.candidates, collector.truncated);
+    }
+
+    // One posting list per distinct gram, rarest first; null when a gram has no postings, so nothing can match
+    private int[] slots(String[] terms, boolean wordPrefix) {
+        int[] slots = new int[0];
+        for (String term : terms) {
+            String indexed = indexedPart(term);
+            if (indexed.isEmpty()) {
+                continue;
+            }
+            long[] keys = queryGrams(indexed);
+            if (wordPrefix && indexed.length() > 2) {
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                keys[keys.length - 1] = key('\0', indexed.charAt(0), indexed.charAt(1));
+            }
+            for (long key : keys) {
+                int slot = postingByGram.get(key);
+                if (slot == LongIntHashMap.MISSING) {
+                    return null;
+                }
+                if (!contains(slots, slot)) {
+                    slots = Arrays.copyOf(slots, slots.length + 1);
+                    slots[slots.length - 1] = slot;
+                }
+            }
+        }
+        sortBySize(slots);
+        return slots;
+    }
+
+    private void join(int[] slots, Collector collector) {
+        if (slots.length == 0) {
+            // Nothing indexed to narrow by (e.g. "@example.com"): verify documents in order
+            for (int doc = 0; doc < documents && collector.accept(doc); doc++) {
+            }
+            return;
+        }
+        // Rare lists drive the join; a dense list only has to answer a bit test per candidate
+        int[] sparse = new int[slots.length];
+        int[] dense = new int[slots.length];
+        int sparseCount = 0;
+        int denseCount = 0;
+        for (int slot : slots) {
+            if (bitmaps[slot] == null) {
+                sparse[sparseCount++] = slot;
+            } else {
+                dense[denseCount++] = slot;
+            }
+        }
+        if (sparseCount > 0) {
+            joinSparse(sparse, sparseCount, dense, denseCount, collector);
+        } else {
+            joinDense(dense, denseCount, collector);
+        }
+    }
+
+    private static boolean sameLists(int[] slots, int[] prefixSlots) {
+        if (slots.length != prefixSlots.length) {
+            return false;
+        }
+        for (int slot : slots) {
+            if (!contains(prefixSlots, slot)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The part of a term the index can look up: an email's local part, or the whole term
+    private static String indexedPart(String term) {
+        int at = term.indexOf('@');
+        return at >= 0 ? term.substring(0, at) : term;
+    }
+
+    // Leapfrog join: each list gallops to the current candidate, and any list that overshoots proposes
+    // the next one, so long lists are skipped through rather than walked
+    private void joinSparse(int[] sparse, int lists, int[] dense, int denseCount, Collector collector) {
+        int[] cursors = new int[lists];
+        int[] driver = postings[sparse[0]];
+        int driverSize = postingSizes[sparse[0]];
+        int doc = driver[0];
+        int agreed = 1;
+        int next = 1 % lists;
+        while (true) {
+            if (agreed == lists) {
+                if (inAll(dense, denseCount, doc) && !collector.accept(doc)) {
+                    return;
+                }
+                if (++cursors[0] == driverSize) {
+                    return;
+                }
+                doc = driver[cursors[0]];
+                agreed = 1;
+                next = 1 % lists;
+                continue;
+            }
+            int[] list = postings[sparse[next]];
+            int size = postingSizes[sparse[next]];
+            int position = gallop(list, cursors[next], size, doc);
+            cursors[next] = position;
+            if (position == size) {
+                return;
+            }
+            if (list[position] == doc) {
+                agreed++;
+            } else {
+                doc = list[position];
+                agreed = 1;
+            }
+            next = (next + 1) % lists;
+        }
+    }
+
+    // Every list is a bitmap: AND them a word at a time
+    private void joinDense(int[] dense, int lists, Collector collector) {
+        int words = Integer.MAX_VALUE;
+        for (int i = 0; i < lists; i++) {
+            words = Math.min(words, bitmaps[dense[i]].length);
+        }
+        for (int word = 0; word < words; word++) {
+            long bits = bitmaps[dense[0]][word];
+            for (int i = 1; i < lists && bits != 0; i++) {
+                bits &= bitmaps[dense[i]][word];
+            }
+            while (bits != 0) {
+                int doc = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (!collector.accept(doc)) {
+                    return;
+                }
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private boolean inAll(int[] dense, int count, int doc) {
+        for (int i = 0; i < count; i++) {
+            if (!contains(bitmaps[dense[i]], doc)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int documents() {
+        return documents - deadDocuments;
+    }
+
+    int grams() {
+        return grams;
+    }
+
+    long highestUserId() {
+        return highestUserId;
+    }
+
+    // Releases the slack left by array growth; call once a bulk load is done
+    void trim() {
+        userIds = Arrays.copyOf(userIds, documents);
+        texts = Arrays.copyOf(texts, documents);
+        departments = Arrays.copyOf(departments, documents);
+        int words = (documents + 63) >>> 6;
+        dead = Arrays.copyOf(dead, words);
+        // Density is judged against the final document count, not the count when a list crossed over
+        int threshold = denseThreshold();
+        for (int slot = 0; slot < grams; slot++) {
+            if (bitmaps[slot] != null && postingSizes[slot] < threshold) {
+                postings[slot] = toList(bitmaps[slot], postingSizes[slot]);
+                bitmaps[slot] = null;
+            } else if (bitmaps[slot] == null && postingSizes[slot] >= threshold) {
+                bitmaps[slot] = toBitmap(postings[slot], postingSizes[slot]);
+                postings[slot] = null;
+            }
+            if (bitmaps[slot] != null) {
+                bitmaps[slot] = Arrays.copyOf(bitmaps[slot], words);
+            } else {
+                postings[slot] = Arrays.copyOf(postings[slot], postingSizes[slot]);
+            }
+        }
+        postings = Arrays.copyOf(postings, grams);
+        bitmaps = Arrays.copyOf(bitmaps, grams);
+        postingSizes = Arrays.copyOf(postingSizes, grams);
+    }
+
+    // Approximate retained heap, assuming compressed oops and compact Latin-1 strings where possible
+    MemoryReport memory() {
+        long documentBytes = arrayBytes(userIds.length, Long.BYTES) + arrayBytes(texts.length, 4)
+                + arrayBytes(departments.length, Integer.BYTES) + arrayBytes(dead.length, Long.BYTES)
+                + textBytes + documentByUser.estimatedBytes();
+        long postingBytes = arrayBytes(postings.length, 4) + arrayBytes(bitmaps.length, 4)
+                + arrayBytes(postingSizes.length, Integer.BYTES) + postingByGram.estimatedBytes();
+        long postingEntries = 0;
+        int bitmapCount = 0;
+        for (int slot = 0; slot < grams; slot++) {
+            if (bitmaps[slot] != null) {
+                postingBytes += arrayBytes(bitmaps[slot].length, Long.BYTES);
+                bitmapCount++;
+            } else {
+                postingBytes += arrayBytes(postings[slot].length, Integer.BYTES);
+            }
+            postingEntries += postingSizes[slot];
+        }
+        for (int i = 0; i < departmentNames.size(); i++) {
+            documentBytes += stringBytes(departmentNames.get(i)) + arrayBytes(departmentGrams.get(i).length, Long.BYTES);
+        }
+        return new MemoryReport(documents(), deadDocuments, grams, bitmapCount, postingEntries,
+                documentBytes, postingBytes);
+    }
+
+    private int departmentId(String department) {
+        Integer id = departmentIds.get(department);
+        if (id == null) {
+            id = departmentNames.size();
+            departmentNames.add(department);
+            int count = collectGrams(department, 0, department.length(), 0);
+            Arrays.sort(scratch, 0, count);
+            departmentGrams.add(Arrays.stream(scratch, 0, count).distinct().toArray());
+            departmentIds.put(department, id);
+        }
+        return id;
+    }
+
+    // Trigrams of the whole field plus one- and two-character prefixes of every word in it
+    private int collectGrams(String text, int from, int to, int count) {
+        ensureScratch(count + 3 * (to - from));
+        for (int i = from; i < to; i++) {
+            char c = lower(text.charAt(i));
+            if (i + 2 < to) {
+                scratch[count++] = key(c, lower(text.charAt(i + 1)), lower(text.charAt(i + 2)));
+            }
+            if (Character.isLetterOrDigit(c) && (i == from || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                scratch[count++] = key('\0', c, '\0');
+                if (i + 1 < to && Character.isLetterOrDigit(text.charAt(i + 1))) {
+                    scratch[count++] = key('\0', c, lower(text.charAt(i + 1)));
+                }
+            }
+        }
+        return count;
+    }
+
+    // Long terms match anywhere in a field; one or two characters only match the start of a word
+    private static long[] queryGrams(String term) {
+        if (term.length() == 1) {
+            return new long[] {key('\0', term.charAt(0), '\0')};
+        }
+        if (term.length() == 2) {
+            return new long[] {key('\0', term.charAt(0), term.charAt(1))};
+        }
+        long[] keys = new long[term.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(term.charAt(i), term.charAt(i + 1), term.charAt(i + 2));
+        }
+        return keys;
+    }
+
+    private void post(long key, int doc) {
+        int slot = postingByGram.get(key);
+        if (slot == LongIntHashMap.MISSING) {
+            slot = grams++;
+            if (slot == postingSizes.length) {
+                int capacity = Math.max(16, slot * 2);
+                postings = Arrays.copyOf(postings, capacity);
+                bitmaps = Arrays.copyOf(bitmaps, capacity);
+                postingSizes = Arrays.copyOf(postingSizes, capacity);
+            }
+            postings[slot] = new int[4];
+            postingByGram.put(key, slot);
+        }
+        int size = postingSizes[slot];
+        postingSizes[slot] = size + 1;
+
+        long[] bitmap = bitmaps[slot];
+        if (bitmap != null) {
+            int word = doc >>> 6;
+            if (word >= bitmap.length) {
+                bitmap = Arrays.copyOf(bitmap, Math.max(word + 1, bitmap.length + (bitmap.length >> 1)));
+                bitmaps[slot] = bitmap;
+            }
+            bitmap[word] |= 1L << doc;
+            return;
+        }
+
+        int[] list = postings[slot];
+        if (size == list.length) {
+            list = Arrays.copyOf(list, size + (size >> 1) + 1);
+            postings[slot] = list;
+        }
+        // Documents are numbered in insertion order, so appending keeps every list sorted
+        list[size] = doc;
+        if (size + 1 >= denseThreshold()) {
+            bitmaps[slot] = toBitmap(list, size + 1);
+            postings[slot] = null;
+        }
+    }
+
+    private int denseThreshold() {
+        return Math.max(MIN_BITMAP_SIZE, documents >>> 5);
+    }
+
+    private long[] toBitmap(int[] list, int size) {
+        long[] bitmap = new long[(documents + 63) >>> 6];
+        for (int i = 0; i < size; i++) {
+            bitmap[list[i] >>> 6] |= 1L << list[i];
+        }
+        return bitmap;
+    }
+
+    private static int[] toList(long[] bitmap, int size) {
+        int[] list = new int[size];
+        int count = 0;
+        for (int word = 0; word < bitmap.length; word++) {
+            for (long bits = bitmap[word]; bits != 0; bits &= bits - 1) {
+                list[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return list;
+    }
+
+    private static boolean contains(long[] bitmap, int doc) {
+        int word = doc >>> 6;
+        return word < bitmap.length && (bitmap[word] & (1L << doc)) != 0;
+    }
+
+    // Every term must match some field; the document scores the sum of each term's best field
+    private int score(int doc, String[] terms, int[] departmentScores) {
+        String text = texts[doc];
+        int emailStart = text.indexOf(SEPARATOR) + 1;
+        int empIdStart = text.indexOf(SEPARATOR, emailStart) + 1;
+        int at = text.indexOf('@', emailStart);
+        int localEnd = at >= 0 && at < empIdStart ? at : empIdStart - 1;
+        int department = departments[doc];
+
+        int total = 0;
+        for (int t = 0; t < terms.length; t++) {
+            String term = terms[t];
+            // A term with a domain is matched against the whole address, the domain included
+            int emailEnd = term.indexOf('@') >= 0 ? empIdStart - 1 : localEnd;
+            int best = best(0, match(text, 0, emailStart - 1, term), FULL_NAME);
+            best = best(best, match(text, emailStart, emailEnd, term), EMAIL);
+            best = best(best, match(text, empIdStart, text.length(), term), EMP_ID);
+            // Few departments, many users each: match every department name once per query
+            int cached = t * departmentNames.size() + department;
+            if (departmentScores[cached] < 0) {
+                String name = departmentNames.get(department);
+                departmentScores[cached] = match(name, 0, name.length(), term);
+            }
+            best = best(best, departmentScores[cached], DEPARTMENT);
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int best(int current, int match, int field) {
+        return match == 0 ? current : Math.max(current, match + FIELD_BONUS[field]);
+    }
+
+    private static int match(String text, int from, int to, String term) {
+        int length = term.length();
+        if (to - from < length) {
+            return 0;
+        }
+        if (startsWith(text, from, term)) {
+            return to - from == length ? EXACT : FIELD_PREFIX;
+        }
+        boolean substring = false;
+        for (int i = from + 1; i <= to - length; i++) {
+            if (text.regionMatches(true, i, term, 0, length)) {
+                if (!Character.isLetterOrDigit(text.charAt(i - 1))) {
+                    return WORD_PREFIX;
+                }
+                substring = true;
+            }
+        }
+        return substring && length >= MIN_SUBSTRING ? SUBSTRING : 0;
+    }
+
+    // The term is already lowercased, the same way the indexed text was
+    private static boolean startsWith(String text, int from, String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (lower(text.charAt(from + i)) != term.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private UserSearchHit hit(long rank) {
+        int doc = Integer.MAX_VALUE - (int) rank;
+        String text = texts[doc];
+        int emailStart = text.indexOf(SEPARATOR) + 1;
+        int empIdStart = text.indexOf(SEPARATOR, emailStart) + 1;
+        return new UserSearchHit(userIds[doc],
+                text.substring(0, emailStart - 1),
+                text.substring(emailStart, empIdStart - 1),
+                text.substring(empIdStart),
+                departmentNames.get(departments[doc]),
+                (int) (rank >>> 32));
+    }
+
+    // Higher is better: score first, then the earlier document
+    private static long rank(int score, int doc) {
+        return ((long) score << 32) | (Integer.MAX_VALUE - doc);
+    }
+
+    // Keeps top[0..found) sorted best first; returns the new count
+    private static int offer(long[] top, int found, long rank) {
+        if (found == top.length) {
+            if (rank <= top[found - 1]) {
+                return found;
+            }
+            found--;
+        }
+        int i = found;
+        while (i > 0 && top[i - 1] < rank) {
+            top[i] = top[i - 1];
+            i--;
+        }
+        top[i] = rank;
+        return found + 1;
+    }
+
+    // First position at or after from whose value is >= target, or size if none
+    private static int gallop(int[] list, int from, int size, int target) {
+        if (from >= size || list[from] >= target) {
+            return from;
+        }
+        int low = from;
+        int step = 1;
+        int high = from + 1;
+        while (high < size && list[high] < target) {
+            low = high;
+            step <<= 1;
+            high = low + step;
+        }
+        int lo = low + 1;
+        int hi = Math.min(high, size);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (list[mid] < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void sortBySize(int[] slots) {
+        for (int i = 1; i < slots.length; i++) {
+            int slot = slots[i];
+            int j = i;
+            while (j > 0 && postingSizes[slots[j - 1]] > postingSizes[slot]) {
+                slots[j] = slots[j - 1];
+                j--;
+            }
+            slots[j] = slot;
+        }
+    }
+
+    private static String[] terms(String query) {
+        if (query == null) {
+            return new String[0];
+        }
+        // Lowercased char by char, exactly as the indexed text is
+        char[] lowered = query.trim().toCharArray();
+        for (int i = 0; i < lowered.length; i++) {
+            lowered[i] = lower(lowered[i]);
+        }
+        String[] parts = new String(lowered).split("\\s+");
+        List<String> terms = new ArrayList<>(Math.min(parts.length, MAX_TERMS));
+        for (String part : parts) {
+            if (!part.isEmpty() && !terms.contains(part) && terms.size() < MAX_TERMS) {
+                terms.add(part);
+            }
+        }
+        return terms.toArray(new String[0]);
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markDead(int doc) {
+        if (!isDead(doc)) {
+            dead[doc >>> 6] |= 1L << doc;
+            deadDocuments++;
+        }
+    }
+
+    private boolean isDead(int doc) {
+        return (dead[doc >>> 6] & (1L << doc)) != 0;
+    }
+
+    private void ensureDocumentCapacity(int capacity) {
+        if (capacity > userIds.length) {
+            int grown = Math.max(capacity, userIds.length + (userIds.length >> 1));
+            userIds = Arrays.copyOf(userIds, grown);
+            texts = Arrays.copyOf(texts, grown);
+            departments = Arrays.copyOf(departments, grown);
+            dead = Arrays.copyOf(dead, (grown + 63) >>> 6);
+        }
+    }
+
+    private void ensureScratch(int capacity) {
+        if (capacity > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(capacity, scratch.length * 2));
+        }
+    }
+
+    private static char lower(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private static long key(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return align(16 + (long) length * elementBytes);
+    }
+
+    private static long stringBytes(String value) {
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) <= 0xFF;
+        }
+        return 24 + arrayBytes(value.length(), latin1 ? 1 : 2);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    // Verifies, scores and keeps the best candidates of one query; accept returns false to stop the join
+    private final class Collector {
+        final String[] terms;
+        final int maxCandidates;
+        final int[] departmentScores;
+        final long[] top;
+        int found;
+        int candidates;
+        boolean truncated;
+        // Set for the second pass, which must not verify the word-prefix candidates again
+        boolean skipPrefixMatches;
+        int[] prefixMatches = new int[16];
+        int prefixMatchCount;
+
+        Collector(String[] terms, int limit, int maxCandidates) {
+            this.terms = terms;
+            this.maxCandidates = maxCandidates;
+            this.departmentScores = new int[terms.length * departmentNames.size()];
+            Arrays.fill(departmentScores, -1);
+            this.top = new long[limit];
+        }
+
+        boolean accept(int doc) {
+            if (isDead(doc)) {
+                return true;
+            }
+            // Bounds the work for broad queries such as a single common letter
+            if (candidates == maxCandidates) {
+                truncated = true;
+                return false;
+            }
+            if (skipPrefixMatches) {
+                // The first pass found its documents in ascending order
+                if (Arrays.binarySearch(prefixMatches, 0, prefixMatchCount, doc) >= 0) {
+                    return true;
+                }
+            } else {
+                if (prefixMatchCount == prefixMatches.length) {
+                    prefixMatches = Arrays.copyOf(prefixMatches, prefixMatchCount * 2);
+                }
+                prefixMatches[prefixMatchCount++] = doc;
+            }
+            candidates++;
+            int score = score(doc, terms, departmentScores);
+            if (score > 0) {
+                found = offer(top, found, rank(score, doc));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Estimated heap held by the index: stored documents (ids, text, the
+     * user-to-document map) and postings (the lists plus the gram map).
+     */
+    record MemoryReport(int documents, int deadDocuments, int grams, int bitmaps, long postingEntries,
+                        long documentBytes, long postingBytes) {
+
+        long totalBytes() {
+            return documentBytes + postingBytes;
+        }
+
+        double bytesPerDocument() {
+            return documents == 0 ? 0 : (double) totalBytes() / documents;
+        }
+    }
+}
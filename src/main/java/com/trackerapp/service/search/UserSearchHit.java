@@ -0,0 +1,5 @@
+package com.trackerapp.service.search;
+
+// One ranked match; carries only the indexed fields, never the password hash
+public record UserSearchHit(long id, String fullName, String email, String empId, String department, int score) {
+}
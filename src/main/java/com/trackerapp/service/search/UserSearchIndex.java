@@ -0,0 +1,219 @@
+package com.trackerapp.service.search;
+
+import com.trackerapp.model.User;
+import com.trackerapp.repository.UserRepository;
+import com.trackerapp.repository.projection.UserSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Typeahead search over the user directory, answered from an in-process
+ * {@link TrigramIndex} instead of {@code LIKE '%x%'} scans. Built in keyset
+ * pages once the application is ready, kept current by registrations and
+ * imports, and rebuilt periodically to drop replaced entries and pick up
+ * changes made outside this instance.
+ */
+@Service
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final int BUILD_PAGE_SIZE = 5000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Upper bound on documents verified per query, which keeps one-letter queries as cheap as precise ones
+    @Value("${tracker.search.max-candidates:300}")
+    private int maxCandidates;
+
+    private volatile Guarded current = new Guarded(new TrigramIndex(1024));
+
+    // Non-null while a rebuild is loading; writes go to both indexes
+    private volatile Guarded building;
+
+    private volatile boolean ready;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final AtomicBoolean warmUpStarted = new AtomicBoolean();
+
+    private Timer queryTimer;
+
+    @PostConstruct
+    public void init() {
+        queryTimer = Timer.builder("tracker.search.query")
+                .description("Time to answer a user search from the index")
+                .register(meterRegistry);
+        Gauge.builder("tracker.search.documents", this, UserSearchIndex::documents)
+                .description("Users in the search index")
+                .register(meterRegistry);
+        Gauge.builder("tracker.search.memory", this, search -> search.memory().totalBytes())
+                .description("Estimated heap held by the search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // Searches answer 503 until the first build completes
+    @EventListener
+    public void warmUp(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && warmUpStarted.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("search-warmup").start(() -> {
+                rebuild();
+                ready = true;
+            });
+        }
+    }
+
+    // Compacts away replaced entries and picks up rows changed outside this instance
+    @Scheduled(initialDelayString = "${tracker.search.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${tracker.search.rebuild-interval-ms:3600000}")
+    public void reconcile() {
+        if (ready) {
+            rebuild();
+        }
+    }
+
+    public UserSearchResult search(String query, int limit) {
+        return queryTimer.record(() -> current.read(index -> index.search(query, limit, maxCandidates)));
+    }
+
+    // Call only after the user row has been committed; replaces any earlier entry for the same id
+    public void put(User user) {
+        Guarded pending = building;
+        current.put(List.of(toSummary(user)));
+        if (pending != null) {
+            pending.put(List.of(toSummary(user)));
+        }
+    }
+
+    // Highest user id indexed so far; bulk writers pass it to catchUp once their rows are committed
+    public long highestUserId() {
+        return current.read(TrigramIndex::highestUserId);
+    }
+
+    // Indexes every row with an id above afterId, for writers that do not know their generated ids
+    public void catchUp(long afterId) {
+        if (!ready) {
+            // The warm-up scan will see these rows
+            return;
+        }
+        load(afterId, page -> {
+            Guarded pending = building;
+            current.put(page);
+            if (pending != null) {
+                pending.put(page);
+            }
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private int documents() {
+        return current.read(TrigramIndex::documents);
+    }
+
+    private TrigramIndex.MemoryReport memory() {
+        return current.read(TrigramIndex::memory);
+    }
+
+    private void rebuild() {
+        // A lock rather than synchronized: the scan blocks on JDBC and may run on a virtual thread
+        rebuildLock.lock();
+        long start = System.currentTimeMillis();
+        Guarded fresh = new Guarded(new TrigramIndex(Math.max(1024, documents())));
+        building = fresh;
+
+        try {
+            load(0, fresh::put);
+            fresh.write(TrigramIndex::trim);
+            current = fresh;
+        } finally {
+            building = null;
+            rebuildLock.unlock();
+        }
+
+        TrigramIndex.MemoryReport memory = memory();
+        log.info("Search index rebuilt with {} users, {} grams, ~{} MB ({} bytes/user) in {} ms",
+                memory.documents(), memory.grams(), memory.totalBytes() / (1024 * 1024),
+                Math.round(memory.bytesPerDocument()), System.currentTimeMillis() - start);
+    }
+
+    // Keyset pages on the primary key: no long-running transaction or cursor while the index loads
+    private void load(long afterId, Consumer<List<UserSummary>> consumer) {
+        long after = afterId;
+        List<UserSummary> page;
+        do {
+            page = userRepository.findSummariesAfter(after, null, null, null, Limit.of(BUILD_PAGE_SIZE));
+            if (!page.isEmpty()) {
+                consumer.accept(page);
+                after = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == BUILD_PAGE_SIZE);
+    }
+
+    private static UserSummary toSummary(User user) {
+        return new UserSummary(user.getId(), user.getFullName(), user.getEmail(), user.getDepartment(),
+                user.getEmpId(), user.getRole(), user.isEnabled());
+    }
+
+    // An index with the lock that guards it; searches share the read lock, writes take it exclusively
+    private static final class Guarded {
+        private final TrigramIndex index;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        Guarded(TrigramIndex index) {
+            this.index = index;
+        }
+
+        <T> T read(Function<TrigramIndex, T> reader) {
+            lock.readLock().lock();
+            try {
+                return reader.apply(index);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void write(Consumer<TrigramIndex> writer) {
+            lock.writeLock().lock();
+            try {
+                writer.accept(index);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void put(List<UserSummary> users) {
+            write(index -> {
+                for (UserSummary user : users) {
+                    index.put(user.id(), user.fullName(), user.email(), user.empId(), user.department());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.trackerapp.service.search;
+
+import java.util.List;
+
+// Best hits first; truncated means the query matched more candidates than were examined
+public record UserSearchResult(List<UserSearchHit> hits, int candidates, boolean truncated) {
+
+    static final UserSearchResult EMPTY = new UserSearchResult(List.of(), 0, false);
+}
@@ -0,0 +1,42 @@
+-- Schema for the users, revoked_tokens and user_version_changes tables, applied once per environment
+-- before the application starts (deployment job / init container). Keep in step with
+-- com.trackerapp.model.User, RevokedToken and UserVersionChange.
+-- Safe to re-run. Works on MySQL and on H2 with MODE=MySQL.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    full_name   VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    department  VARCHAR(255) NOT NULL,
+    emp_id      VARCHAR(255) NOT NULL,
+    mobile_no   VARCHAR(255) NOT NULL,
+    role        VARCHAR(16)  NOT NULL,
+    enabled     BOOLEAN,
+    version     BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_emp_id UNIQUE (emp_id),
+    INDEX idx_users_department_id (department, id),
+    INDEX idx_users_role_id (role, id),
+    INDEX idx_users_enabled_id (enabled, id)
+);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id    BIGINT       NOT NULL,
+    expires_at  BIGINT       NOT NULL,
+    revoked_at  BIGINT       NOT NULL,
+    PRIMARY KEY (token_id),
+    INDEX idx_revoked_tokens_revoked_at (revoked_at),
+    INDEX idx_revoked_tokens_expires_at (expires_at)
+);
+
+CREATE TABLE IF NOT EXISTS user_version_changes (
+    user_id     BIGINT       NOT NULL,
+    version     BIGINT       NOT NULL,
+    changed_at  BIGINT       NOT NULL,
+    expires_at  BIGINT       NOT NULL,
+    PRIMARY KEY (user_id),
+    INDEX idx_user_version_changes_changed_at (changed_at),
+    INDEX idx_user_version_changes_expires_at (expires_at)
+);
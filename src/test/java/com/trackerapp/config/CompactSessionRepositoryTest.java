@@ -0,0 +1,384 @@
+package com.trackerapp.config;
+
+import com.trackerapp.model.Role;
+import com.trackerapp.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CompactSessionRepositoryTest {
+
+    // Same derivation as the repository, so a test can size each shard exactly
+    private static final int SHARDS = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4));
+    private static final long BYTES_PER_RECORD = CompactSessionRepository.RECORD_SIZE
+            + CompactSessionRepository.INDEX_OVERHEAD;
+
+    // Four records per shard: a 16-entry index whose home slot for a low half below 2^32 is low & 15
+    private static final int PER_SHARD = 4;
+
+    private final List<Boolean> evictions = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    private CompactSessionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = repository(PER_SHARD);
+    }
+
+    @Test
+    void savedSessionIsFoundAndDeleted() {
+        CompactSessionRepository.CompactSession session = repository.createSession();
+        repository.save(session);
+
+        assertThat(repository.findById(session.getId())).isNotNull();
+        assertThat(repository.size()).isEqualTo(1);
+
+        repository.deleteById(session.getId());
+
+        assertThat(repository.findById(session.getId())).isNull();
+        assertThat(repository.size()).isZero();
+    }
+
+    @Test
+    void malformedIdsAreNotFound() {
+        assertThat(repository.findById(null)).isNull();
+        assertThat(repository.findById("not-a-session-id")).isNull();
+        assertThat(repository.findById("0".repeat(32))).isNull();
+        assertThat(repository.findById("G".repeat(32))).isNull();
+    }
+
+    @Test
+    void probeChainWrappingPastTheEndOfTheIndexSurvivesRemoval() throws IOException {
+        // Same shard and home slot 15, the last one: the chain continues at 0 and 1
+        long[] lows = {15, 31, 47};
+        repository.readSnapshot(snapshot(records(1, lows)));
+        for (long low : lows) {
+            assertThat(repository.findById(id(1, low))).as("low %d", low).isNotNull();
+        }
+
+        // Removing the head of the chain must shift the wrapped entries back, not orphan them
+        repository.deleteById(id(1, 15));
+        assertThat(repository.findById(id(1, 15))).isNull();
+        assertThat(repository.findById(id(1, 31))).isNotNull();
+        assertThat(repository.findById(id(1, 47))).isNotNull();
+
+        // Reinserting lands at the end of the chain and is still found
+        repository.readSnapshot(snapshot(records(1, 15)));
+        assertThat(repository.findById(id(1, 15))).isNotNull();
+
+        repository.deleteById(id(1, 31));
+        assertThat(repository.findById(id(1, 15))).isNotNull();
+        assertThat(repository.findById(id(1, 31))).isNull();
+        assertThat(repository.findById(id(1, 47))).isNotNull();
+        assertThat(repository.size()).isEqualTo(2);
+    }
+
+    @Test
+    void entryWhoseHomeIsAfterTheGapIsNotShiftedBack() throws IOException {
+        // 14 and 15 fill the end of the index, 30 wraps to 0 and 1 sits at its own home slot 1
+        repository.readSnapshot(snapshot(records(1, 14, 15, 30, 1)));
+
+        repository.deleteById(id(1, 15));
+
+        assertThat(repository.findById(id(1, 14))).isNotNull();
+        assertThat(repository.findById(id(1, 30))).isNotNull();
+        assertThat(repository.findById(id(1, 1))).isNotNull();
+    }
+
+    @Test
+    void fullShardEvictsTheLeastRecentlyUsedSession() {
+        List<CompactSessionRepository.CompactSession> sessions = sessionsInShard(0, PER_SHARD + 1);
+        for (int i = 0; i < PER_SHARD; i++) {
+            repository.save(sessions.get(i));
+        }
+        // Reading the oldest makes the second one least recently used
+        assertThat(repository.findById(sessions.get(0).getId())).isNotNull();
+
+        repository.save(sessions.get(PER_SHARD));
+
+        assertThat(repository.findById(sessions.get(1).getId())).isNull();
+        assertThat(repository.findById(sessions.get(0).getId())).isNotNull();
+        assertThat(repository.findById(sessions.get(PER_SHARD).getId())).isNotNull();
+        assertThat(repository.size()).isEqualTo(PER_SHARD);
+        assertThat(evictions).containsExactly(false);
+    }
+
+    @Test
+    void changedSessionIdReplacesTheOldOne() {
+        CompactSessionRepository.CompactSession session = repository.createSession();
+        repository.save(session);
+        String oldId = session.getId();
+
+        String newId = session.changeSessionId();
+        repository.save(session);
+
+        assertThat(newId).isNotEqualTo(oldId).isEqualTo(session.getId());
+        assertThat(repository.findById(oldId)).isNull();
+        assertThat(repository.findById(newId)).isNotNull();
+        assertThat(repository.size()).isEqualTo(1);
+    }
+
+    @Test
+    void authenticationSurvivesSaveAndChangeSessionId() {
+        CompactSessionRepository.CompactSession session = repository.createSession();
+        session.setAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE, snapshot(7, Role.ADMIN));
+        session.changeSessionId();
+        repository.save(session);
+
+        AuthenticationSnapshot restored = repository.findById(session.getId())
+                .getAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE);
+
+        assertThat(restored.getUserId()).isEqualTo(7);
+        assertThat(restored.getRole()).isEqualTo(Role.ADMIN);
+        assertThat(repository.sessionsByUser(10))
+                .extracting(CompactSessionRepository.UserSessions::userId, CompactSessionRepository.UserSessions::role)
+                .containsExactly(tuple(7L, Role.ADMIN));
+    }
+
+    @Test
+    void otherAttributesSurviveSaveAndChangeSessionId() {
+        CompactSessionRepository.CompactSession session = repository.createSession();
+        session.setAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE, snapshot(7, Role.USER));
+        session.setAttribute("SPRING_SECURITY_SAVED_REQUEST", "/dashboard");
+        repository.save(session);
+        String oldId = session.getId();
+        session.changeSessionId();
+        repository.save(session);
+
+        CompactSessionRepository.CompactSession found = repository.findById(session.getId());
+
+        assertThat(found.<String>getAttribute("SPRING_SECURITY_SAVED_REQUEST")).isEqualTo("/dashboard");
+        assertThat(found.getAttributeNames())
+                .containsExactlyInAnyOrder(AuthenticationSnapshot.SESSION_ATTRIBUTE, "SPRING_SECURITY_SAVED_REQUEST");
+        assertThat(repository.findById(oldId)).isNull();
+
+        found.removeAttribute("SPRING_SECURITY_SAVED_REQUEST");
+        repository.save(found);
+        assertThat(repository.findById(session.getId()).getAttributeNames())
+                .containsExactly(AuthenticationSnapshot.SESSION_ATTRIBUTE);
+    }
+
+    @Test
+    void attributeChangesReachTheStoreOnlyOnSave() {
+        CompactSessionRepository.CompactSession session = repository.createSession();
+        session.setAttribute("locale", "de");
+        repository.save(session);
+
+        repository.findById(session.getId()).setAttribute("locale", "fr");
+
+        assertThat(repository.findById(session.getId()).<String>getAttribute("locale")).isEqualTo("de");
+    }
+
+    @Test
+    void attributesAreDroppedWithTheirSession() {
+        List<CompactSessionRepository.CompactSession> sessions = sessionsInShard(0, PER_SHARD + 2);
+        CompactSessionRepository.CompactSession deleted = sessions.get(0);
+        deleted.setAttribute("locale", "de");
+        repository.save(deleted);
+        repository.deleteById(deleted.getId());
+        CompactSessionRepository.CompactSession evicted = sessions.get(1);
+        evicted.setAttribute("locale", "fr");
+        repository.save(evicted);
+
+        // The freed slot and then the evicted one are reused by sessions without attributes
+        for (int i = 2; i < sessions.size(); i++) {
+            repository.save(sessions.get(i));
+        }
+
+        assertThat(repository.findById(evicted.getId())).isNull();
+        for (int i = 2; i < sessions.size(); i++) {
+            assertThat(repository.findById(sessions.get(i).getId()).getAttributeNames()).as("session %d", i).isEmpty();
+        }
+    }
+
+    @Test
+    void idleSessionExpiresOnLookup() {
+        CompactSessionRepository.CompactSession session = repository.createSession();
+        session.setMaxInactiveInterval(Duration.ofSeconds(5));
+        session.setLastAccessedTime(Instant.now().minusSeconds(10));
+        repository.save(session);
+
+        assertThat(repository.findById(session.getId())).isNull();
+        assertThat(repository.size()).isZero();
+        assertThat(evictions).containsExactly(true);
+    }
+
+    @Test
+    void expireIdleRemovesOnlyIdleSessions() {
+        CompactSessionRepository.CompactSession idle = repository.createSession();
+        idle.setMaxInactiveInterval(Duration.ofSeconds(5));
+        idle.setLastAccessedTime(Instant.now().minusSeconds(10));
+        repository.save(idle);
+        CompactSessionRepository.CompactSession active = repository.createSession();
+        repository.save(active);
+        CompactSessionRepository.CompactSession unlimited = repository.createSession();
+        unlimited.setMaxInactiveInterval(Duration.ofSeconds(-1));
+        unlimited.setLastAccessedTime(Instant.now().minus(Duration.ofDays(365)));
+        repository.save(unlimited);
+
+        assertThat(repository.expireIdle()).isEqualTo(1);
+
+        assertThat(repository.size()).isEqualTo(2);
+        assertThat(repository.findById(active.getId())).isNotNull();
+        assertThat(repository.findById(unlimited.getId())).isNotNull();
+    }
+
+    @Test
+    void snapshotRoundTripRestoresSessionsAndSkipsExpiredOnes() throws IOException {
+        CompactSessionRepository.CompactSession anonymous = repository.createSession();
+        repository.save(anonymous);
+        CompactSessionRepository.CompactSession loggedIn = repository.createSession();
+        loggedIn.setAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE, snapshot(3, Role.USER));
+        loggedIn.setAttribute("locale", "de");
+        repository.save(loggedIn);
+        CompactSessionRepository.CompactSession idle = repository.createSession();
+        idle.setMaxInactiveInterval(Duration.ofSeconds(5));
+        idle.setLastAccessedTime(Instant.now().minusSeconds(10));
+        repository.save(idle);
+        Path file = directory.resolve("sessions.bin");
+
+        assertThat(repository.writeSnapshot(file)).isEqualTo(2);
+
+        CompactSessionRepository restored = repository(PER_SHARD);
+        assertThat(restored.readSnapshot(file)).isEqualTo(2);
+        assertThat(restored.size()).isEqualTo(2);
+        CompactSessionRepository.CompactSession session = restored.findById(loggedIn.getId());
+        assertThat(session.getCreationTime()).isEqualTo(loggedIn.getCreationTime());
+        assertThat(session.getMaxInactiveInterval()).isEqualTo(loggedIn.getMaxInactiveInterval());
+        assertThat(session.<AuthenticationSnapshot>getAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE).getUserId())
+                .isEqualTo(3);
+        assertThat(restored.findById(anonymous.getId()).getAttributeNames()).isEmpty();
+        assertThat(restored.findById(idle.getId())).isNull();
+        // Attributes other than the snapshot are not part of the file
+        assertThat(session.getAttributeNames()).containsExactly(AuthenticationSnapshot.SESSION_ATTRIBUTE);
+    }
+
+    @Test
+    void snapshotLargerThanCapacityKeepsTheMostRecentlyUsedSessions() throws IOException {
+        // Written least recently used first, as writeSnapshot does, all into one shard
+        long[] lows = new long[PER_SHARD * 3];
+        for (int i = 0; i < lows.length; i++) {
+            lows[i] = 2 * i + 1;
+        }
+        Path file = snapshot(records(1, lows));
+
+        assertThat(repository.readSnapshot(file)).isEqualTo(lows.length);
+
+        assertThat(repository.size()).isEqualTo(PER_SHARD);
+        for (int i = 0; i < lows.length; i++) {
+            boolean recent = i >= lows.length - PER_SHARD;
+            assertThat(repository.findById(id(1, lows[i])) != null).as("session %d", i).isEqualTo(recent);
+        }
+    }
+
+    @Test
+    void snapshotFromALargerStoreFitsASmallerOne() throws IOException {
+        CompactSessionRepository large = repository(PER_SHARD * 4);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < large.capacity(); i++) {
+            CompactSessionRepository.CompactSession session = large.createSession();
+            large.save(session);
+            ids.add(session.getId());
+        }
+        Path file = directory.resolve("sessions.bin");
+        large.writeSnapshot(file);
+
+        repository.readSnapshot(file);
+
+        assertThat(repository.size()).isLessThanOrEqualTo(repository.capacity());
+        int found = 0;
+        for (String id : ids) {
+            if (repository.findById(id) != null) {
+                found++;
+            }
+        }
+        assertThat(found).isEqualTo(repository.size());
+    }
+
+    @Test
+    void unknownSnapshotFormatIsIgnored() throws IOException {
+        Path file = directory.resolve("sessions.bin");
+        Files.write(file, new byte[] {1, 2, 3});
+
+        assertThat(repository.readSnapshot(file)).isZero();
+        assertThat(repository.readSnapshot(directory.resolve("missing.bin"))).isZero();
+    }
+
+    private CompactSessionRepository repository(int perShard) {
+        return new CompactSessionRepository(BYTES_PER_RECORD * perShard * SHARDS, Duration.ofMinutes(30), 100,
+                userId -> snapshot(userId, Role.USER), idle -> evictions.add(idle));
+    }
+
+    private static AuthenticationSnapshot snapshot(long userId, Role role) {
+        User user = new User();
+        user.setId(userId);
+        user.setEmail("user" + userId + "@trackerpro.com");
+        user.setFullName("User " + userId);
+        user.setRole(role);
+        return new AuthenticationSnapshot(user, new AtomicLong());
+    }
+
+    // Fresh sessions whose ids fall into the given shard
+    private List<CompactSessionRepository.CompactSession> sessionsInShard(int shard, int count) {
+        List<CompactSessionRepository.CompactSession> sessions = new ArrayList<>();
+        while (sessions.size() < count) {
+            CompactSessionRepository.CompactSession session = repository.createSession();
+            long high = Long.parseUnsignedLong(session.getId().substring(0, 16), 16);
+            if (((int) (high >>> 32) & (SHARDS - 1)) == shard) {
+                sessions.add(session);
+            }
+        }
+        return sessions;
+    }
+
+    private static String id(long high, long low) {
+        return String.format("%016x%016x", high, low);
+    }
+
+    // Anonymous sessions, accessed now, in the snapshot record layout
+    private static ByteBuffer records(long high, long... lows) {
+        long now = System.currentTimeMillis();
+        ByteBuffer records = ByteBuffer.allocate(lows.length * CompactSessionRepository.RECORD_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < lows.length; i++) {
+            int base = i * CompactSessionRepository.RECORD_SIZE;
+            records.putLong(base, high);
+            records.putLong(base + 8, lows[i]);
+            records.putLong(base + 16, now);
+            records.putLong(base + 24, now);
+            records.putInt(base + 32, 1800);
+            records.put(base + 36, (byte) -1);
+            records.putLong(base + 40, -1);
+        }
+        return records;
+    }
+
+    private Path snapshot(ByteBuffer records) throws IOException {
+        ByteBuffer file = ByteBuffer.allocate(24 + records.capacity()).order(ByteOrder.LITTLE_ENDIAN);
+        file.putLong(0x5452_4B53_4553_5331L)
+                .putInt(CompactSessionRepository.RECORD_SIZE)
+                .putInt(records.capacity() / CompactSessionRepository.RECORD_SIZE)
+                .putLong(System.currentTimeMillis())
+                .put(records.rewind());
+        Path path = Files.createTempFile(directory, "sessions", ".bin");
+        Files.write(path, file.array());
+        return path;
+    }
+}
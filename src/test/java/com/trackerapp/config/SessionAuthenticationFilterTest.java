@@ -0,0 +1,96 @@
+package com.trackerapp.config;
+
+import com.trackerapp.model.Role;
+import com.trackerapp.model.User;
+import com.trackerapp.service.AuthTokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SessionAuthenticationFilterTest {
+
+    private final SessionAuthenticationFilter filter =
+            new SessionAuthenticationFilter(new SimpleMeterRegistry(), mock(AuthTokenService.class));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void sessionsSharingASnapshotGetContextsOfTheirOwn() throws Exception {
+        // The compact store hands every session of a user the same cached snapshot
+        AuthenticationSnapshot snapshot = snapshot();
+
+        SecurityContext first = contextFor(snapshot);
+        // What SecurityContextLogoutHandler does to the context of the session logging out
+        first.setAuthentication(null);
+        SecurityContext second = contextFor(snapshot);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getAuthentication()).isSameAs(snapshot.getAuthentication());
+    }
+
+    @Test
+    void staleSnapshotIsRemovedFromTheSession() throws Exception {
+        AtomicLong currentVersion = new AtomicLong();
+        AuthenticationSnapshot snapshot = new AuthenticationSnapshot(user(), currentVersion);
+        currentVersion.incrementAndGet();
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE, snapshot);
+
+        SecurityContext context = run(session);
+
+        assertThat(context.getAuthentication()).isNull();
+        assertThat(session.getAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE)).isNull();
+    }
+
+    // The context the rest of the chain sees for a request in a session holding the snapshot
+    private SecurityContext contextFor(AuthenticationSnapshot snapshot) throws Exception {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(AuthenticationSnapshot.SESSION_ATTRIBUTE, snapshot);
+        return run(session);
+    }
+
+    private SecurityContext run(MockHttpSession session) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dashboard");
+        request.setSession(session);
+        SecurityContext[] seen = new SecurityContext[1];
+        filter.doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest req, HttpServletResponse res) {
+                        seen[0] = SecurityContextHolder.getContext();
+                    }
+                }));
+        return seen[0];
+    }
+
+    private static AuthenticationSnapshot snapshot() {
+        return new AuthenticationSnapshot(user(), new AtomicLong());
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("alice@trackerpro.com");
+        user.setFullName("Alice");
+        user.setRole(Role.USER);
+        return user;
+    }
+}
@@ -0,0 +1,46 @@
+package com.trackerapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserAvailabilityIndexTest {
+
+    private final UserAvailabilityIndex index = new UserAvailabilityIndex();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        index.init();
+        // As after the warm-up scan, so lookups are answered from the index
+        ReflectionTestUtils.setField(index, "ready", true);
+    }
+
+    @Test
+    void keysDifferingOnlyInCaseAreTaken() {
+        index.add("Alice@TrackerPro.com", "EMP001");
+
+        assertThat(index.emailExists("alice@trackerpro.com")).isTrue();
+        assertThat(index.emailExists("ALICE@TRACKERPRO.COM")).isTrue();
+        assertThat(index.empIdExists("emp001")).isTrue();
+        assertThat(index.emailExists("bob@trackerpro.com")).isFalse();
+        assertThat(index.empIdExists("EMP002")).isFalse();
+    }
+
+    @Test
+    void foldingIgnoresTheDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        // Turkish rules would lower "I" to a dotless i
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            assertThat(UserAvailabilityIndex.fold("ADMIN@TRACKERPRO.COM")).isEqualTo("admin@trackerpro.com");
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.trackerapp.service;
+
+import com.trackerapp.model.Role;
+import com.trackerapp.model.User;
+import com.trackerapp.repository.UserRepository;
+import com.trackerapp.service.search.UserSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link UserService}'s write paths against a real {@link UserCache}
+ * over a mocked repository that holds one row, and checks that every key
+ * the cache knows the user by sees the change.
+ */
+class UserCacheTest {
+
+    private static final Long ID = 1L;
+    private static final String EMAIL = "alice@trackerpro.com";
+    private static final String EMP_ID = "EMP001";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+    private final UserCache userCache = new UserCache();
+    private final UserService userService = new UserService();
+
+    // The committed row; each read returns a copy, as a new persistence context would
+    private User row;
+
+    @BeforeEach
+    void setUp() {
+        row = user(Role.USER, true, "old-hash");
+        when(userRepository.findById(ID)).thenAnswer(invocation -> Optional.of(copy(row)));
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> Optional.of(copy(row)));
+        when(userRepository.findByEmpId(EMP_ID)).thenAnswer(invocation -> Optional.of(copy(row)));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            row = copy(invocation.getArgument(0));
+            return copy(row);
+        });
+
+        ReflectionTestUtils.setField(userCache, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userCache, "enabled", true);
+        ReflectionTestUtils.setField(userCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(userCache, "ttlSeconds", 3600L);
+        userCache.init();
+
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "passwordHashingService", passwordHashingService);
+        ReflectionTestUtils.setField(userService, "userVersionRegistry", mock(UserVersionRegistry.class));
+        ReflectionTestUtils.setField(userService, "authTokenService", mock(AuthTokenService.class));
+        ReflectionTestUtils.setField(userService, "userCache", userCache);
+        ReflectionTestUtils.setField(userService, "userStatistics", mock(UserStatistics.class));
+        ReflectionTestUtils.setField(userService, "userSearchIndex", mock(UserSearchIndex.class));
+        ReflectionTestUtils.setField(userService, "meterRegistry", new SimpleMeterRegistry());
+        userService.init();
+
+        cacheUnderEveryKey();
+    }
+
+    @Test
+    void updateRoleEvictsEveryKey() {
+        userService.updateRole(ID, Role.ADMIN);
+
+        assertThat(userCache.findById(ID)).get().extracting(User::getRole).isEqualTo(Role.ADMIN);
+        assertThat(userCache.findByEmail(EMAIL)).get().extracting(User::getRole).isEqualTo(Role.ADMIN);
+        assertThat(userCache.findByEmpId(EMP_ID)).get().extracting(User::getRole).isEqualTo(Role.ADMIN);
+    }
+
+    @Test
+    void updateEnabledEvictsEveryKey() {
+        userService.updateEnabled(ID, false);
+
+        assertThat(userCache.findById(ID)).get().extracting(User::isEnabled).isEqualTo(false);
+        assertThat(userCache.findByEmail(EMAIL)).get().extracting(User::isEnabled).isEqualTo(false);
+        assertThat(userCache.findByEmpId(EMP_ID)).get().extracting(User::isEnabled).isEqualTo(false);
+        // Logins read by email and must refuse straight away
+        assertThat(userService.authenticateUser(EMAIL, "password123").join()).isEmpty();
+    }
+
+    @Test
+    void replacePasswordHashEvictsEveryKey() {
+        when(passwordHashingService.matches(anyString(), eq("old-hash"))).thenReturn(CompletableFuture.completedFuture(true));
+        when(passwordHashingService.needsRehash("old-hash")).thenReturn(true);
+        when(passwordHashingService.encodeWhenIdle(anyString())).thenReturn(CompletableFuture.completedFuture("new-hash"));
+        when(userRepository.replacePasswordHash(ID, "old-hash", "new-hash")).thenAnswer(invocation -> {
+            row.setPassword("new-hash");
+            return 1;
+        });
+
+        assertThat(userService.authenticateUser(EMAIL, "password123").join()).isPresent();
+
+        assertThat(userCache.findById(ID)).get().extracting(User::getPassword).isEqualTo("new-hash");
+        assertThat(userCache.findByEmail(EMAIL)).get().extracting(User::getPassword).isEqualTo("new-hash");
+        assertThat(userCache.findByEmpId(EMP_ID)).get().extracting(User::getPassword).isEqualTo("new-hash");
+    }
+
+    @Test
+    void loadRacingAnUpdateDoesNotCacheTheStaleRow() throws Exception {
+        userCache.evictAll();
+        CountDownLatch readDone = new CountDownLatch(1);
+        CountDownLatch updateDone = new CountDownLatch(1);
+        // The first read sees the old row, then stalls until the update has committed and evicted
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> {
+            Optional<User> stale = Optional.of(copy(row));
+            readDone.countDown();
+            assertThat(updateDone.await(10, TimeUnit.SECONDS)).isTrue();
+            return stale;
+        }).thenAnswer(invocation -> Optional.of(copy(row)));
+
+        CompletableFuture<Optional<User>> racingLoad = CompletableFuture.supplyAsync(() -> userCache.findByEmail(EMAIL));
+        assertThat(readDone.await(10, TimeUnit.SECONDS)).isTrue();
+        userService.updateEnabled(ID, false);
+        updateDone.countDown();
+
+        // The racing caller gets what it read, but must not leave it behind for others
+        assertThat(racingLoad.get(10, TimeUnit.SECONDS)).get().extracting(User::isEnabled).isEqualTo(true);
+        assertThat(userCache.findByEmail(EMAIL)).get().extracting(User::isEnabled).isEqualTo(false);
+        assertThat(userCache.findById(ID)).get().extracting(User::isEnabled).isEqualTo(false);
+        assertThat(userCache.findByEmpId(EMP_ID)).get().extracting(User::isEnabled).isEqualTo(false);
+    }
+
+    private void cacheUnderEveryKey() {
+        userCache.findById(ID);
+        userCache.findByEmail(EMAIL);
+        userCache.findByEmpId(EMP_ID);
+    }
+
+    private static User user(Role role, boolean enabled, String passwordHash) {
+        User user = new User("Alice", EMAIL, passwordHash, "Engineering", EMP_ID, "5550100", role);
+        user.setId(ID);
+        user.setEnabled(enabled);
+        return user;
+    }
+
+    private static User copy(User source) {
+        return user(source.getRole(), source.isEnabled(), source.getPassword());
+    }
+}
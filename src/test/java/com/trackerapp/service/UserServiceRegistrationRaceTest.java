@@ -0,0 +1,149 @@
+package com.trackerapp.service;
+
+import com.trackerapp.model.User;
+import com.trackerapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Registers the same user from many threads at once against an in-memory H2
+ * database, so that the prechecks let several contenders through and the
+ * unique constraints decide who wins.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:registration-race;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "tracker.admin.seed=false",
+                "tracker.audit.enabled=false",
+                "tracker.sessions.snapshot-file=",
+                "tracker.password.bcrypt-strength=4",
+                "tracker.hashing.queue-capacity=1024"
+        })
+class UserServiceRegistrationRaceTest {
+
+    private static final int CONTENDERS = 16;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void sameEmailIsRegisteredExactlyOnce() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            String email = "email-race-" + round + "@trackerpro.com";
+            int r = round;
+            List<CompletableFuture<User>> results = race(i -> user(email, "EMAIL-" + r + "-" + i));
+
+            assertOneWinner(results, "Email already exists");
+            assertThat(userRepository.findByEmail(email)).isPresent();
+        }
+    }
+
+    @Test
+    void sameEmployeeIdIsRegisteredExactlyOnce() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            String empId = "EMPID-RACE-" + round;
+            int r = round;
+            List<CompletableFuture<User>> results = race(i -> user("empid-race-" + r + "-" + i + "@trackerpro.com", empId));
+
+            assertOneWinner(results, "Employee ID already exists");
+            assertThat(userRepository.existsByEmpId(empId)).isTrue();
+        }
+    }
+
+    @Test
+    void constraintViolationPastThePrechecksIsAConflict() {
+        // Written behind the service's back, so only the unique constraint knows about it
+        User existing = user("direct@trackerpro.com", "DIRECT-1");
+        existing.setPassword(passwordEncoder.encode(existing.getPassword()));
+        userRepository.save(existing);
+
+        assertThatThrownBy(() -> userService.registerUser(user("direct@trackerpro.com", "DIRECT-2")).join())
+                .isInstanceOf(CompletionException.class)
+                .cause()
+                .isInstanceOf(UserConflictException.class)
+                .hasMessage("Email already exists");
+        assertThatThrownBy(() -> userService.registerUser(user("direct-2@trackerpro.com", "DIRECT-1")).join())
+                .cause()
+                .isInstanceOf(UserConflictException.class)
+                .hasMessage("Employee ID already exists");
+    }
+
+    // Calls registerUser from every contender at once and waits for all of them to finish
+    private List<CompletableFuture<User>> race(IntFunction<User> contender) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CONTENDERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<CompletableFuture<User>>> calls = new ArrayList<>();
+            for (int i = 0; i < CONTENDERS; i++) {
+                User user = contender.apply(i);
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    return userService.registerUser(user);
+                }));
+            }
+            start.countDown();
+
+            List<CompletableFuture<User>> results = new ArrayList<>();
+            for (Future<CompletableFuture<User>> call : calls) {
+                CompletableFuture<User> result = call.get();
+                // Settle each one, whatever its outcome
+                result.handle((user, failure) -> null).join();
+                results.add(result);
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void assertOneWinner(List<CompletableFuture<User>> results, String conflictMessage) {
+        List<User> winners = new ArrayList<>();
+        for (CompletableFuture<User> result : results) {
+            try {
+                winners.add(result.join());
+            } catch (CompletionException e) {
+                assertThat(e.getCause()).isInstanceOf(UserConflictException.class).hasMessage(conflictMessage);
+            }
+        }
+        assertThat(winners).hasSize(1);
+        assertThat(winners.get(0).getId()).isNotNull();
+    }
+
+    private static User user(String email, String empId) {
+        User user = new User();
+        user.setFullName("Race Contender");
+        user.setEmail(email);
+        user.setEmpId(empId);
+        user.setDepartment("Engineering");
+        user.setMobileNo("5550100");
+        user.setPassword("password123");
+        return user;
+    }
+}
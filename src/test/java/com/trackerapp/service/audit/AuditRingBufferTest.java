@@ -0,0 +1,144 @@
+package com.trackerapp.service.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    void drainsRecordsInOfferOrder() {
+        AuditRingBuffer ring = new AuditRingBuffer(8);
+        ring.offer(1000, AuditEventType.LOGIN_SUCCESS, 7, "alice@trackerpro.com", "10.0.0.1");
+        ring.offer(2000, AuditEventType.LOGIN_FAILURE, -1, "bob@trackerpro.com", "2001:db8::1");
+
+        List<AuditEvent> events = drain(ring, 10);
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).type()).isEqualTo(AuditEventType.LOGIN_SUCCESS);
+        assertThat(events.get(0).userId()).isEqualTo(7);
+        assertThat(events.get(0).email()).isEqualTo("alice@trackerpro.com");
+        assertThat(events.get(0).ipAddress()).isEqualTo("10.0.0.1");
+        assertThat(events.get(0).emailTruncated()).isFalse();
+        assertThat(events.get(1).timestamp().toEpochMilli()).isEqualTo(2000);
+        assertThat(events.get(1).ipAddress()).isEqualTo("2001:db8::1");
+        assertThat(ring.backlog()).isZero();
+    }
+
+    @Test
+    void overlongEmailIsTruncatedOnACharacterBoundary() {
+        AuditRingBuffer ring = new AuditRingBuffer(2);
+        String email = "é".repeat(AuditRecord.EMAIL_CAPACITY) + "@trackerpro.com";
+        ring.offer(1000, AuditEventType.REGISTER_FAILURE, -1, email, null);
+
+        AuditEvent event = drain(ring, 1).get(0);
+
+        assertThat(event.emailTruncated()).isTrue();
+        assertThat(event.email()).isEqualTo("é".repeat(AuditRecord.EMAIL_CAPACITY / 2));
+        assertThat(event.ipAddress()).isEmpty();
+    }
+
+    @Test
+    void fullRingRefusesUntilTheConsumerCatchesUp() {
+        // Rounded down to a power of two
+        AuditRingBuffer ring = new AuditRingBuffer(5);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(1000 + i, AuditEventType.LOGOUT, i, "", "")).isTrue();
+        }
+        assertThat(ring.offer(2000, AuditEventType.LOGOUT, 99, "", "")).isFalse();
+        assertThat(ring.backlog()).isEqualTo(4);
+
+        assertThat(drain(ring, 3)).extracting(AuditEvent::userId).containsExactly(0L, 1L, 2L);
+
+        for (int i = 4; i < 7; i++) {
+            assertThat(ring.offer(1000 + i, AuditEventType.LOGOUT, i, "", "")).isTrue();
+        }
+        assertThat(ring.offer(2000, AuditEventType.LOGOUT, 99, "", "")).isFalse();
+        assertThat(drain(ring, 10)).extracting(AuditEvent::userId).containsExactly(3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void drainStopsAtTheFirstUnpublishedSlotAfterWrapping() {
+        AuditRingBuffer ring = new AuditRingBuffer(4);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                ring.offer(1000, AuditEventType.LOGIN_SUCCESS, round * 3 + i, "", "");
+            }
+            assertThat(drain(ring, 10)).extracting(AuditEvent::userId)
+                    .containsExactly(round * 3L, round * 3L + 1, round * 3L + 2);
+            assertThat(drain(ring, 10)).isEmpty();
+        }
+    }
+
+    @Test
+    void concurrentProducersLoseAndDuplicateNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 5_000;
+        AuditRingBuffer ring = new AuditRingBuffer(256);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    failed.set(true);
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    // A full ring refuses; retry once the consumer has had a chance to free a slot
+                    while (!ring.offer(1000 + i, AuditEventType.LOGIN_SUCCESS, producer * perProducer + i,
+                            "user" + i + "@trackerpro.com", "10.0.0." + producer)) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        long[] nextByProducer = new long[producers];
+        int received = 0;
+        ByteBuffer target = ByteBuffer.allocate(16 * AuditRecord.SIZE).order(AuditRecord.ORDER);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            int count = ring.drainTo(target, 0, 16);
+            for (int i = 0; i < count; i++) {
+                AuditEvent event = AuditRecord.decode(target, i * AuditRecord.SIZE, received + i);
+                int producer = (int) (event.userId() / perProducer);
+                long sequence = event.userId() % perProducer;
+                // Each producer's own events arrive in its order, intact
+                assertThat(sequence).isEqualTo(nextByProducer[producer]++);
+                assertThat(event.email()).isEqualTo("user" + sequence + "@trackerpro.com");
+                assertThat(event.ipAddress()).isEqualTo("10.0.0." + producer);
+            }
+            received += count;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(failed).isFalse();
+        assertThat(received).isEqualTo(producers * perProducer);
+        assertThat(nextByProducer).containsOnly(perProducer);
+        assertThat(ring.backlog()).isZero();
+    }
+
+    private static List<AuditEvent> drain(AuditRingBuffer ring, int max) {
+        ByteBuffer target = ByteBuffer.allocate(max * AuditRecord.SIZE).order(AuditRecord.ORDER);
+        int count = ring.drainTo(target, 0, max);
+        List<AuditEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(AuditRecord.decode(target, i * AuditRecord.SIZE, i));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,133 @@
+package com.trackerapp.service.reset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResetTokenStoreTest {
+
+    // Ten ticks to live on a 16-bucket wheel
+    private static final long TTL = 1000;
+    private static final long TICK = 100;
+
+    @Test
+    void tokenIsSpentOnlyOnce() {
+        ResetTokenStore store = new ResetTokenStore(TTL, TICK, 10, 0);
+        store.put("a", 1, 0);
+
+        assertThat(store.peek("a", 10)).isEqualTo(1);
+        assertThat(store.consume("a", 20)).isEqualTo(1);
+        assertThat(store.consume("a", 30)).isEqualTo(ResetTokenStore.MISSING);
+        assertThat(store.peek("unknown", 30)).isEqualTo(ResetTokenStore.MISSING);
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void newTokenReplacesTheUsersPreviousOne() {
+        ResetTokenStore store = new ResetTokenStore(TTL, TICK, 10, 0);
+        store.put("first", 1, 0);
+        store.put("second", 1, 50);
+
+        assertThat(store.peek("first", 60)).isEqualTo(ResetTokenStore.MISSING);
+        assertThat(store.peek("second", 60)).isEqualTo(1);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void tokenExpiresOnItsDeadlineTick() {
+        ResetTokenStore store = new ResetTokenStore(TTL, TICK, 10, 0);
+        store.put("a", 1, 0);
+
+        assertThat(store.peek("a", TTL - 1)).isEqualTo(1);
+        assertThat(store.peek("a", TTL)).isEqualTo(ResetTokenStore.MISSING);
+        assertThat(store.expired()).isEqualTo(1);
+    }
+
+    @Test
+    void expiryStaysExactAcrossManyTurnsOfTheWheel() {
+        ResetTokenStore store = new ResetTokenStore(TTL, TICK, 1000, 0);
+        List<Long> issuedAt = new ArrayList<>();
+
+        // A token every 70 ms for 100 wheel turns: deadlines land in every bucket, many times over
+        for (long now = 0; now < 16 * TICK * 100; now += 70) {
+            store.put("t" + issuedAt.size(), issuedAt.size(), now);
+            issuedAt.add(now);
+
+            for (int i = Math.max(0, issuedAt.size() - 20); i < issuedAt.size(); i++) {
+                long issued = issuedAt.get(i);
+                boolean live = now / TICK < issued / TICK + TTL / TICK;
+                assertThat(store.peek("t" + i, now)).as("token %d at %d", i, now)
+                        .isEqualTo(live ? i : ResetTokenStore.MISSING);
+            }
+            assertThat(store.size()).isLessThanOrEqualTo((int) (TTL / 70) + 2);
+        }
+        assertThat(store.expired()).isEqualTo(issuedAt.size() - store.size());
+    }
+
+    @Test
+    void longIdleGapExpiresEverythingOnce() {
+        ResetTokenStore store = new ResetTokenStore(TTL, TICK, 10, 0);
+        store.put("a", 1, 0);
+        store.put("b", 2, 550);
+
+        // Lands on the same bucket as "a"'s deadline after many turns, and skips the rest of the wheel
+        store.advance(TTL + 16 * TICK * 1000);
+
+        assertThat(store.size()).isZero();
+        assertThat(store.expired()).isEqualTo(2);
+
+        long later = TTL + 16 * TICK * 1000 + 30;
+        store.put("c", 3, later);
+        assertThat(store.peek("c", later + TTL - TICK)).isEqualTo(3);
+        assertThat(store.peek("c", later + TTL)).isEqualTo(ResetTokenStore.MISSING);
+    }
+
+    @Test
+    void clockGoingBackwardsDoesNotExpireOrResurrect() {
+        ResetTokenStore store = new ResetTokenStore(TTL, TICK, 10, 5000);
+        store.put("a", 1, 5000);
+
+        assertThat(store.peek("a", 4000)).isEqualTo(1);
+        assertThat(store.peek("a", 5000 + TTL)).isEqualTo(ResetTokenStore.MISSING);
+        assertThat(store.peek("a", 5000)).isEqualTo(ResetTokenStore.MISSING);
+    }
+
+    @Test
+    void fullStoreEvictsTheOldestToken() {
+        ResetTokenStore store = new ResetTokenStore(TTL, TICK, 3, 0);
+        store.put("a", 1, 0);
+        store.put("b", 2, 0);
+        store.put("c", 3, 300);
+
+        store.put("d", 4, 400);
+        assertThat(store.peek("a", 400)).isEqualTo(ResetTokenStore.MISSING);
+        assertThat(store.peek("b", 400)).isEqualTo(2);
+
+        store.put("e", 5, 400);
+        store.put("f", 6, 400);
+        assertThat(store.peek("b", 400)).isEqualTo(ResetTokenStore.MISSING);
+        assertThat(store.peek("c", 400)).isEqualTo(ResetTokenStore.MISSING);
+        assertThat(store.peek("d", 400)).isEqualTo(4);
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.evicted()).isEqualTo(3);
+        assertThat(store.expired()).isZero();
+    }
+
+    @Test
+    void evictionFindsTheOldestTokenAfterTheWheelWraps() {
+        ResetTokenStore store = new ResetTokenStore(TTL, TICK, 2, 0);
+        long now = 16 * TICK * 7 + 1350;
+        store.put("a", 1, now);
+        store.put("b", 2, now + 500);
+
+        store.put("c", 3, now + 900);
+
+        assertThat(store.peek("a", now + 900)).isEqualTo(ResetTokenStore.MISSING);
+        assertThat(store.peek("b", now + 900)).isEqualTo(2);
+        assertThat(store.peek("c", now + 900)).isEqualTo(3);
+        assertThat(store.evicted()).isEqualTo(1);
+    }
+}
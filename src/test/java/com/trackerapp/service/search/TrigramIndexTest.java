@@ -0,0 +1,93 @@
+package com.trackerapp.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private final TrigramIndex index = new TrigramIndex(16);
+
+    @Test
+    void shortQueriesOnlyMatchTheStartOfAWord() {
+        index.put(1, "Alice Smith", "alice.smith@trackerpro.com", "EMP001", "Engineering");
+        index.put(2, "Sally Brown", "sally.brown@trackerpro.com", "EMP002", "Sales");
+
+        assertThat(ids(index.search("al", 10, 100))).containsExactly(1L);
+        assertThat(ids(index.search("b", 10, 100))).containsExactly(2L);
+        // Inside a word, only a term of MIN_SUBSTRING characters or more matches
+        assertThat(ids(index.search("ll", 10, 100))).isEmpty();
+        assertThat(ids(index.search("lly", 10, 100))).containsExactly(2L);
+    }
+
+    @Test
+    void emptyQueryMatchesNothing() {
+        index.put(1, "Alice Smith", "alice.smith@trackerpro.com", "EMP001", "Engineering");
+
+        assertThat(index.search("   ", 10, 100).hits()).isEmpty();
+        assertThat(index.search(null, 10, 100).hits()).isEmpty();
+    }
+
+    @Test
+    void fullEmailMatchesOnlyThatAddress() {
+        index.put(1, "Alice Smith", "alice.smith@trackerpro.com", "EMP001", "Engineering");
+        index.put(2, "Alice Smith", "alice.smith@other.org", "EXT001", "Engineering");
+
+        UserSearchResult result = index.search("Alice.Smith@TrackerPro.com", 10, 100);
+
+        assertThat(ids(result)).containsExactly(1L);
+        assertThat(result.hits().get(0).email()).isEqualTo("alice.smith@trackerpro.com");
+    }
+
+    @Test
+    void domainOnlyQueryMatchesEveryoneAtThatDomain() {
+        index.put(1, "Alice Smith", "alice.smith@trackerpro.com", "EMP001", "Engineering");
+        index.put(2, "Bob Jones", "bob.jones@other.org", "EXT001", "Sales");
+        index.put(3, "Carol White", "carol.white@other.org", "EXT002", "Sales");
+
+        assertThat(ids(index.search("@other.org", 10, 100))).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(ids(index.search("@nowhere.net", 10, 100))).isEmpty();
+    }
+
+    @Test
+    void exactAndPrefixMatchesOutrankSubstringsPastTheCandidateCap() {
+        // Indexed first, so in document order every substring match comes before the better ones
+        for (long id = 1; id <= 50; id++) {
+            index.put(id, "Kabob Vendor" + id, "vendor" + id + "@trackerpro.com", "V" + id, "Catering");
+        }
+        index.put(100, "Bob Marley", "bob.marley@trackerpro.com", "EMP100", "Music");
+        index.put(101, "Robert Jones", "robert.jones@trackerpro.com", "BOB", "Music");
+
+        UserSearchResult result = index.search("bob", 5, 10);
+
+        assertThat(result.truncated()).isTrue();
+        assertThat(result.candidates()).isEqualTo(10);
+        assertThat(result.hits()).hasSize(5);
+        // The exact employee ID first, then the name that starts with the term
+        assertThat(result.hits().get(0).id()).isEqualTo(101);
+        assertThat(result.hits().get(1).id()).isEqualTo(100);
+        assertThat(result.hits().get(1).score()).isGreaterThan(result.hits().get(2).score());
+    }
+
+    @Test
+    void putReplacesTheEntryForTheSameId() {
+        index.put(1, "Alice Smith", "alice.smith@trackerpro.com", "EMP001", "Engineering");
+        index.put(2, "Bob Jones", "bob.jones@trackerpro.com", "EMP002", "Sales");
+
+        index.put(1, "Alicia Stone", "alicia.stone@trackerpro.com", "EMP001", "Marketing");
+
+        assertThat(index.documents()).isEqualTo(2);
+        assertThat(ids(index.search("smith", 10, 100))).isEmpty();
+        assertThat(ids(index.search("engineering", 10, 100))).isEmpty();
+        UserSearchResult result = index.search("alic", 10, 100);
+        assertThat(ids(result)).containsExactly(1L);
+        assertThat(result.hits().get(0).fullName()).isEqualTo("Alicia Stone");
+        assertThat(result.hits().get(0).department()).isEqualTo("Marketing");
+    }
+
+    private static List<Long> ids(UserSearchResult result) {
+        return result.hits().stream().map(UserSearchHit::id).toList();
+    }
+}